@@ -0,0 +1,103 @@
+-- Compara o cálculo de saldo antigo (duas agregações por tipo) com a agregação
+-- condicional em uma única passada, antes e depois dos índices de lancamento.
+-- Uso: psql -d minhasfinancas_bench -f db/benchmark/obter_saldo.sql
+--
+-- Resultado medido (PostgreSQL 14.10, 1 vCPU, shared_buffers=128MB, work_mem=4MB, cache quente;
+-- 1.000.000 de lançamentos, o usuário 42 tem 1.000: 667 receitas e 333 despesas). Tempo é o
+-- "Execution Time" do EXPLAIN ANALYZE, mediana de 5 execuções:
+--
+--                                          sem índices                com índices
+--   duas consultas (RECEITA + DESPESA)     150,7 + 142,8 = 293,5 ms   0,221 + 0,124 = 0,345 ms
+--   uma consulta condicional               148,2 ms                   0,409 ms
+--
+-- Sem índices cada consulta é um Parallel Seq Scan na tabela inteira (shared hit=13324 cada), então
+-- a passada única lê metade das páginas das duas consultas. Com idx_lancamento_usuario_tipo as três
+-- viram Index Only Scan sem Heap Fetches (7, 6 e 9 buffers); a passada única fica um pouco acima
+-- das duas somadas no servidor, mas economiza uma ida e volta ao banco por cálculo de saldo.
+--
+-- Planos antes dos índices:
+--   RECEITA   Finalize Aggregate -> Gather (2 workers) -> Partial Aggregate -> Parallel Seq Scan on lancamento
+--             Filter: ((id_usuario = 42) AND ((tipo)::text = 'RECEITA'::text)), Rows Removed by Filter: 333111 por processo (loops=3)
+--   DESPESA   mesmo plano, Rows Removed by Filter: 333222 por processo (loops=3)
+--   única     Finalize GroupAggregate -> Gather (2 workers) -> Partial GroupAggregate -> Parallel Seq Scan on lancamento
+--             Filter: (id_usuario = 42), Rows Removed by Filter: 333000 por processo (loops=3)
+-- Planos depois dos índices:
+--   RECEITA   Aggregate -> Index Only Scan using idx_lancamento_usuario_tipo
+--             Index Cond: ((id_usuario = 42) AND (tipo = 'RECEITA'::text)), rows=667, Heap Fetches: 0
+--   DESPESA   Aggregate -> Index Only Scan using idx_lancamento_usuario_tipo, rows=333, Heap Fetches: 0
+--   única     GroupAggregate -> Index Only Scan using idx_lancamento_usuario_tipo
+--             Index Cond: (id_usuario = 42), rows=1000, Heap Fetches: 0
+
+\timing on
+
+CREATE SCHEMA IF NOT EXISTS financas;
+DROP TABLE IF EXISTS financas.lancamento;
+DROP TABLE IF EXISTS financas.usuario;
+
+CREATE TABLE financas.usuario
+(
+	id bigserial NOT NULL PRIMARY KEY,
+	nome character varying(150),
+	email character varying(100),
+	senha character varying(20),
+	data_cadastro date DEFAULT NOW()
+);
+
+CREATE TABLE financas.lancamento
+(
+	id bigserial NOT NULL PRIMARY KEY,
+	descricao character varying(150),
+	mes integer NOT NULL,
+	ano integer NOT NULL,
+	valor numeric(16,2),
+	tipo character varying(20) CHECK (tipo in ('RECEITA', 'DESPESA')) NOT NULL,
+	status character varying(20) CHECK (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')) NOT NULL,
+	id_usuario bigint REFERENCES financas.usuario (id) NOT NULL,
+	data_cadastro date DEFAULT NOW()
+);
+
+INSERT INTO financas.usuario (nome, email, senha)
+SELECT 'usuario ' || i, 'usuario' || i || '@bench.com', '123'
+FROM generate_series(1, 1000) AS i;
+
+INSERT INTO financas.lancamento (descricao, mes, ano, valor, tipo, status, id_usuario)
+SELECT 'lancamento ' || i,
+	1 + (i % 12),
+	2010 + (i % 12),
+	round((random() * 1000)::numeric, 2),
+	CASE WHEN i % 3 = 0 THEN 'DESPESA' ELSE 'RECEITA' END,
+	'PENDENTE',
+	1 + (i % 1000)
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE financas.lancamento;
+
+-- Antes: duas consultas, sem índice
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(valor) FROM financas.lancamento WHERE id_usuario = 42 AND tipo = 'RECEITA';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(valor) FROM financas.lancamento WHERE id_usuario = 42 AND tipo = 'DESPESA';
+
+-- Antes: uma consulta, sem índice
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id_usuario,
+	coalesce(sum(CASE WHEN tipo = 'RECEITA' THEN valor ELSE 0 END), 0),
+	coalesce(sum(CASE WHEN tipo = 'DESPESA' THEN valor ELSE 0 END), 0)
+FROM financas.lancamento WHERE id_usuario = 42 GROUP BY id_usuario;
+
+CREATE INDEX idx_lancamento_usuario_tipo ON financas.lancamento (id_usuario, tipo) INCLUDE (valor);
+CREATE INDEX idx_lancamento_usuario_periodo ON financas.lancamento (id_usuario, ano, mes);
+VACUUM ANALYZE financas.lancamento;
+
+-- Depois: duas consultas, com índice
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(valor) FROM financas.lancamento WHERE id_usuario = 42 AND tipo = 'RECEITA';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(valor) FROM financas.lancamento WHERE id_usuario = 42 AND tipo = 'DESPESA';
+
+-- Depois: uma consulta, com índice (index-only scan esperado)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id_usuario,
+	coalesce(sum(CASE WHEN tipo = 'RECEITA' THEN valor ELSE 0 END), 0),
+	coalesce(sum(CASE WHEN tipo = 'DESPESA' THEN valor ELSE 0 END), 0)
+FROM financas.lancamento WHERE id_usuario = 42 GROUP BY id_usuario;
@@ -18,4 +18,98 @@ CREATE TABLE financas.lancamento
 	status character varying(20) CHECK (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')) NOT NULL,
 	id_usuario bigint REFERENCES financas.usuario (id) NOT NULL,
 	data_cadastro date DEFAULT NOW()
-);
\ No newline at end of file
+);
+
+CREATE TABLE financas.saldo_usuario
+(
+	id_usuario bigint REFERENCES financas.usuario (id) NOT NULL PRIMARY KEY,
+	receitas numeric(16,2) NOT NULL DEFAULT 0,
+	despesas numeric(16,2) NOT NULL DEFAULT 0
+);
+
+INSERT INTO financas.saldo_usuario (id_usuario, receitas, despesas)
+SELECT id_usuario,
+	COALESCE(SUM(valor) FILTER (WHERE tipo = 'RECEITA'), 0),
+	COALESCE(SUM(valor) FILTER (WHERE tipo = 'DESPESA'), 0)
+FROM financas.lancamento
+GROUP BY id_usuario;
+
+CREATE INDEX idx_lancamento_usuario_tipo ON financas.lancamento (id_usuario, tipo) INCLUDE (valor);
+
+CREATE INDEX idx_lancamento_usuario_periodo ON financas.lancamento (id_usuario, ano, mes);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_lancamento_descricao_trgm ON financas.lancamento USING gin (lower(descricao) gin_trgm_ops);
+
+ALTER SEQUENCE financas.lancamento_id_seq INCREMENT BY 50;
+
+ALTER TABLE financas.lancamento ADD COLUMN versao bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE financas.resumo_mensal
+(
+	id bigserial NOT NULL PRIMARY KEY,
+	id_usuario bigint REFERENCES financas.usuario (id) NOT NULL,
+	ano integer NOT NULL,
+	mes integer NOT NULL,
+	tipo character varying(20) CHECK (tipo in ('RECEITA', 'DESPESA')) NOT NULL,
+	status character varying(20) CHECK (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')) NOT NULL,
+	total numeric(16,2) NOT NULL DEFAULT 0,
+	quantidade bigint NOT NULL DEFAULT 0,
+	UNIQUE (id_usuario, ano, mes, tipo, status)
+);
+
+INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)
+SELECT id_usuario, ano, mes, tipo, status, COALESCE(SUM(valor), 0), COUNT(*)
+FROM financas.lancamento
+GROUP BY id_usuario, ano, mes, tipo, status;
+
+ALTER TABLE financas.usuario ALTER COLUMN senha TYPE character varying(100);
+
+CREATE SEQUENCE financas.evento_lancamento_id_seq INCREMENT BY 50;
+
+CREATE TABLE financas.evento_lancamento
+(
+	id bigint NOT NULL PRIMARY KEY DEFAULT nextval('financas.evento_lancamento_id_seq'),
+	id_lancamento bigint NOT NULL,
+	id_usuario bigint NOT NULL,
+	tipo character varying(20) CHECK (tipo in ('CRIADO', 'ATUALIZADO', 'STATUS_ALTERADO', 'EXCLUIDO')) NOT NULL,
+	dados text NOT NULL,
+	data_criacao timestamp NOT NULL DEFAULT NOW(),
+	data_publicacao timestamp
+);
+
+CREATE INDEX idx_evento_lancamento_pendente ON financas.evento_lancamento (id) WHERE data_publicacao IS NULL;
+CREATE INDEX idx_evento_lancamento_publicado ON financas.evento_lancamento (data_publicacao) WHERE data_publicacao IS NOT NULL;
+
+ALTER TABLE financas.lancamento ADD COLUMN alteracao bigint NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_lancamento_usuario_alteracao ON financas.lancamento (id_usuario, alteracao, id);
+
+CREATE TABLE financas.alteracao_usuario
+(
+	id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	alteracao bigint NOT NULL DEFAULT 0
+);
+
+INSERT INTO financas.alteracao_usuario (id_usuario, alteracao)
+SELECT id, 0 FROM financas.usuario;
+
+CREATE TABLE financas.lancamento_excluido
+(
+	id_lancamento bigint NOT NULL PRIMARY KEY,
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	alteracao bigint NOT NULL
+);
+
+CREATE INDEX idx_lancamento_excluido_usuario_alteracao ON financas.lancamento_excluido (id_usuario, alteracao);
+
+ALTER TABLE financas.alteracao_usuario ADD COLUMN expurgado bigint NOT NULL DEFAULT 0;
+
+INSERT INTO financas.alteracao_usuario (id_usuario, alteracao)
+SELECT id, 0 FROM financas.usuario u
+WHERE NOT EXISTS (SELECT 1 FROM financas.alteracao_usuario a WHERE a.id_usuario = u.id);
+
+ALTER TABLE financas.lancamento_excluido ADD COLUMN data_exclusao timestamp NOT NULL DEFAULT NOW();
+
+CREATE INDEX idx_lancamento_excluido_data ON financas.lancamento_excluido (data_exclusao);
@@ -0,0 +1,81 @@
+package com.maquirino.minhasfinancas.api.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.config.JacksonConfig;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LancamentoResourceBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int quantidade;
+
+    private ObjectMapper objectMapper;
+    private Usuario usuario;
+    private LancamentoDTO lancamentoDTO;
+    private List<Lancamento> lancamentos;
+    private List<DadosLancamento> dadosLancamentos;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JacksonConfig().hibernate5Module())
+                .build();
+        usuario = Usuario.builder().id(1L).nome("Benchmark").email("benchmark@email.com").build();
+        lancamentoDTO = LancamentoDTO.builder()
+                .descricao("Conta de luz")
+                .mes(10)
+                .ano(2021)
+                .valor(new BigDecimal("150.35"))
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .usuario(1L)
+                .dataCadastro(LocalDate.now())
+                .build();
+        lancamentos = IntStream.range(0, quantidade)
+                .mapToObj(i -> LancamentoResource.converter(lancamentoDTO, usuario).toBuilder()
+                        .id((long) i)
+                        .versao(0L)
+                        .build())
+                .collect(Collectors.toList());
+        dadosLancamentos = lancamentos.stream().map(DadosLancamento::de).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Lancamento converter() {
+        return LancamentoResource.converter(lancamentoDTO, usuario);
+    }
+
+    @Benchmark
+    public byte[] serializarLancamentos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public byte[] serializarDadosLancamentos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dadosLancamentos);
+    }
+}
@@ -0,0 +1,55 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LancamentoValidacaoBenchmark {
+
+    private LancamentoServiceImpl service;
+    private Lancamento valido;
+    private Lancamento semValor;
+
+    @Setup
+    public void setup() {
+        service = new LancamentoServiceImpl();
+        valido = Lancamento.builder()
+                .descricao("Conta de luz")
+                .mes(10)
+                .ano(2021)
+                .valor(new BigDecimal("150.35"))
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .build();
+        semValor = valido.toBuilder().valor(BigDecimal.ZERO).build();
+    }
+
+    @Benchmark
+    public Lancamento validarLancamentoValido() {
+        service.validar(valido);
+        return valido;
+    }
+
+    @Benchmark
+    public String validarLancamentoInvalido() {
+        try {
+            service.validar(semValor);
+            return null;
+        } catch (RegraNegocioException e) {
+            return e.getMessage();
+        }
+    }
+}
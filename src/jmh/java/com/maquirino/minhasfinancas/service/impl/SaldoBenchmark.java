@@ -0,0 +1,97 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.MinhasfinancasApplication;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisLancamento;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SaldoBenchmark {
+
+    private static final int TAMANHO_BLOCO = 1000;
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext context;
+    private LancamentoService lancamentoService;
+    private LancamentoRepository lancamentoRepository;
+    private Long idUsuario;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "spring.main.banner-mode=off", "logging.level.root=warn")
+                .run();
+        lancamentoService = context.getBean(LancamentoService.class);
+        lancamentoRepository = context.getBean(LancamentoRepository.class);
+
+        Usuario usuario = context.getBean(UsuarioService.class).salvarUsuario(Usuario.builder()
+                .nome("Benchmark")
+                .email("benchmark@email.com")
+                .senha("123")
+                .build());
+        idUsuario = usuario.getId();
+
+        List<Lancamento> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        for (int i = 0; i < quantidade; i++) {
+            bloco.add(Lancamento.builder()
+                    .usuario(usuario)
+                    .descricao("Lancamento " + i)
+                    .mes(i % 12 + 1)
+                    .ano(2000 + i % 20)
+                    .valor(BigDecimal.valueOf(i % 500 + 1))
+                    .tipo(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                    .status(StatusLancamento.PENDENTE)
+                    .build());
+            if (bloco.size() == TAMANHO_BLOCO) {
+                lancamentoService.salvar(bloco);
+                bloco = new ArrayList<>(TAMANHO_BLOCO);
+            }
+        }
+        if (!bloco.isEmpty()) {
+            lancamentoService.salvar(bloco);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldo() {
+        return lancamentoService.obterSaldo(idUsuario);
+    }
+
+    @Benchmark
+    public Optional<TotaisLancamento> obterTotaisAgregados() {
+        return lancamentoRepository.obterTotaisPorUsuario(idUsuario);
+    }
+}
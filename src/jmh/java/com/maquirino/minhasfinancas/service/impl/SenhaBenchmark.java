@@ -0,0 +1,53 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Logins por segundo: {@code conferir} roda em uma thread (vazão por núcleo) e {@code conferirNoPool}
+ * dispara requisições concorrentes contra o pool limitado, com uma thread por núcleo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SenhaBenchmark {
+
+    @Param({"10", "12"})
+    private int custo;
+
+    private SenhaServiceImpl service;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        service = new SenhaServiceImpl(custo, 0, 1000);
+        service.iniciar();
+        hash = service.codificar("senha-do-usuario");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.encerrar();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean conferir() {
+        return service.confere("senha-do-usuario", hash);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean conferirNoPool() {
+        return service.executar(() -> service.confere("senha-do-usuario", hash)).join();
+    }
+}
@@ -7,4 +7,5 @@ import lombok.Data;
 public class AtualizaStatusDTO {
 
     private String status;
+    private Long versao;
 }
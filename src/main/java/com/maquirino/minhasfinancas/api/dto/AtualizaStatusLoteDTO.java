@@ -0,0 +1,17 @@
+package com.maquirino.minhasfinancas.api.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class AtualizaStatusLoteDTO {
+
+    private Long usuario;
+    private List<Long> ids;
+    private Integer ano;
+    private Integer mes;
+    private String statusAtual;
+    private String status;
+}
@@ -20,4 +20,5 @@ public class LancamentoDTO {
     private StatusLancamento status;
     private Long usuario;
     private LocalDate dataCadastro;
+    private Long versao;
 }
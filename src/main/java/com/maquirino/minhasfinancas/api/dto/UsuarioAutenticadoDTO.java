@@ -0,0 +1,14 @@
+package com.maquirino.minhasfinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class UsuarioAutenticadoDTO {
+
+    private Long id;
+    private String nome;
+    private String email;
+    private String token;
+}
@@ -1,46 +1,139 @@
 package com.maquirino.minhasfinancas.api.resource;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.maquirino.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.maquirino.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
 import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.config.AutenticacaoTokenFilter;
+import com.maquirino.minhasfinancas.exception.AcessoNegadoException;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.exception.ImportacaoInterrompidaException;
+import com.maquirino.minhasfinancas.exception.LoteInvalidoException;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.exception.SincronizacaoExpiradaException;
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.pagination.AlteracoesLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.service.ImportacaoService;
 import com.maquirino.minhasfinancas.service.LancamentoService;
 import com.maquirino.minhasfinancas.service.UsuarioService;
+import com.maquirino.minhasfinancas.service.importacao.FormatoExtrato;
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 public class LancamentoResource {
 
+    private static final String FORMATO_NDJSON = "ndjson";
+    private static final String FORMATO_CSV = "csv";
+    private static final String INICIO_FORMULA = "=+-@\t\r";
+    private static final int TAMANHO_MAXIMO_LOTE = 5000;
+
     @Autowired
     private LancamentoService lancamentoService;
 
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/salvar")
     public ResponseEntity salvar(@RequestBody LancamentoDTO lancamentoDTO) {
         try {
             var lancamento = converter(lancamentoDTO);
             lancamento = lancamentoService.salvar(lancamento);
-            return ResponseEntity.status(HttpStatus.CREATED).body(lancamento);
-        } catch (RegraNegocioException e) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(DadosLancamento.de(lancamento));
+        } catch (ErroAutenticacao | RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/salvar/lote")
+    public ResponseEntity salvarEmLote(@RequestBody List<LancamentoDTO> lancamentosDTO) {
+        if (lancamentosDTO.isEmpty() || lancamentosDTO.size() > TAMANHO_MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().body("Lote deve conter entre 1 e " + TAMANHO_MAXIMO_LOTE + " lançamentos.");
+        }
+        try {
+            Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+            List<Lancamento> lancamentos = new ArrayList<>(lancamentosDTO.size());
+            for (LancamentoDTO lancamentoDTO : lancamentosDTO) {
+                Usuario usuario = usuarios
+                        .computeIfAbsent(lancamentoDTO.getUsuario(), this::buscarUsuario)
+                        .orElse(null);
+                lancamentos.add(converter(lancamentoDTO, usuario));
+            }
+            lancamentos = lancamentoService.salvar(lancamentos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(lancamentos.stream()
+                    .map(DadosLancamento::de)
+                    .collect(Collectors.toList()));
+        } catch (LoteInvalidoException e) {
+            return ResponseEntity.badRequest().body(e.getErros());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/importar")
+    public ResponseEntity importar(
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            InputStream entrada) {
+        try {
+            FormatoExtrato formatoExtrato = FormatoExtrato.valueOf(formato.toUpperCase(Locale.ROOT));
+            Usuario usuario = usuario(idUsuario);
+            ResultadoImportacao resultado = importacaoService.importar(entrada, formatoExtrato, usuario);
+            return ResponseEntity.ok(resultado);
+        } catch (ImportacaoInterrompidaException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getResultado());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Formato de extrato inválido, utilize csv ou ofx.");
+        } catch (ErroAutenticacao | RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
         }
     }
 
@@ -48,48 +141,81 @@ public class LancamentoResource {
     public ResponseEntity atualizar(@PathVariable("id") Long idLancamento, @RequestBody LancamentoDTO lancamentoDTO) {
         try {
             Lancamento entidade = lancamentoService.obterPorId(idLancamento);
+            validarDono(entidade.getUsuario().getId());
             Lancamento atualizado = converter(lancamentoDTO);
 
             atualizado.setId(entidade.getId());
+            atualizado.setVersao(lancamentoDTO.getVersao() == null ? entidade.getVersao() : lancamentoDTO.getVersao());
 
-            lancamentoService.atualizar(atualizado);
+            atualizado = lancamentoService.atualizar(atualizado);
 
-            return ResponseEntity.ok(atualizado);
-        } catch (RegraNegocioException e) {
+            return ResponseEntity.ok(DadosLancamento.de(atualizado));
+        } catch (ErroAutenticacao | RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Lançamento foi alterado por outra operação, por favor recarregue e tente novamente.");
         }
     }
 
     @PutMapping("{id}/atualizar/status")
     public ResponseEntity atualizarStatus(@PathVariable("id") Long idLancamento, @RequestBody AtualizaStatusDTO atualizaStatusDTO) {
-        Lancamento lancamentoComNovoStatus;
-        StatusLancamento statusSelecionado;
+        DadosLancamento atualizado;
 
         try {
-            if (atualizaStatusDTO.getStatus() == null) {
-                throw new IllegalArgumentException();
-            }
-            String status = atualizaStatusDTO.getStatus();
-            statusSelecionado = StatusLancamento.valueOf(status.toUpperCase(Locale.ROOT));
+            StatusLancamento statusSelecionado = status(atualizaStatusDTO.getStatus());
 
-            Lancamento entidade = lancamentoService.obterPorId(idLancamento);
-            lancamentoComNovoStatus = lancamentoService.atualizarStatus(entidade, statusSelecionado);
+            atualizado = lancamentoService.atualizarStatus(idLancamento, statusSelecionado, atualizaStatusDTO.getVersao(),
+                    AutenticacaoTokenFilter.usuarioAutenticado().orElse(null));
         } catch (RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Lançamento foi alterado por outra operação, por favor recarregue e tente novamente.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar o status do Lançamento, envie um status válido.");
+        }
+        return ResponseEntity.ok(atualizado);
+    }
+
+    @PutMapping("/atualizar/status/lote")
+    public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO atualizaStatusLoteDTO) {
+        try {
+            StatusLancamento statusSelecionado = status(atualizaStatusLoteDTO.getStatus());
+            StatusLancamento statusAtual = atualizaStatusLoteDTO.getStatusAtual() == null
+                    ? null : status(atualizaStatusLoteDTO.getStatusAtual());
+
+            Lancamento lancamentoFiltro = Lancamento.builder()
+                    .usuario(usuario(atualizaStatusLoteDTO.getUsuario()))
+                    .ano(atualizaStatusLoteDTO.getAno())
+                    .mes(atualizaStatusLoteDTO.getMes())
+                    .status(statusAtual)
+                    .build();
+
+            int atualizados = lancamentoService.atualizarStatus(lancamentoFiltro, atualizaStatusLoteDTO.getIds(), statusSelecionado);
+            return ResponseEntity.ok(atualizados);
+        } catch (ErroAutenticacao | RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Não foi possível atualizar o status do Lançamento, envie um status válido.");
         }
-        return ResponseEntity.ok(lancamentoComNovoStatus);
     }
 
     @DeleteMapping("/deletar/{id}")
     public ResponseEntity deletar(@PathVariable("id") Long idLancamento) {
         try {
             Lancamento lancamento = lancamentoService.obterPorId(idLancamento);
+            validarDono(lancamento.getUsuario().getId());
             lancamentoService.deletar(lancamento);
             return ResponseEntity.noContent().build();
         } catch (RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
         }
     }
 
@@ -98,26 +224,217 @@ public class LancamentoResource {
             @RequestParam(value = "descricao", required = false) String descricao,
             @RequestParam(value = "mes", required = false) Integer mes,
             @RequestParam(value = "ano", required = false) Integer ano,
-            @RequestParam(value = "usuario", required = true) long idUsuario) {
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho,
+            @RequestHeader HttpHeaders headers) {
         try {
+            Long idVersao = idUsuario(idUsuario);
+            Optional<Long> versao = lancamentoService.obterVersaoUsuario(idVersao);
+            String etag = etag(idVersao, versao.orElse(0L));
+            if (versao.isPresent() && naoModificado(headers, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
             Lancamento lancamentoFiltro = Lancamento.builder()
                     .descricao(descricao)
                     .mes(mes)
                     .ano(ano)
-                    .usuario(usuarioService.obterPorId(idUsuario))
+                    // o contador de alterações só existe para usuários cadastrados
+                    .usuario(versao.isPresent() ? usuarioService.obterReferenciaAutenticada(idVersao) : usuario(idUsuario))
                     .build();
 
-            List<Lancamento> lancamentos = lancamentoService.buscar(lancamentoFiltro);
+            PaginaLancamento pagina = lancamentoService.buscar(lancamentoFiltro, cursor, tamanho);
 
-            return ResponseEntity.ok().body(lancamentos);
-        } catch (ErroAutenticacao e) {
+            return ResponseEntity.ok().eTag(etag).body(pagina);
+        } catch (ErroAutenticacao | RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/alteracoes")
+    public ResponseEntity buscarAlteracoes(
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        try {
+            AlteracoesLancamento alteracoes = lancamentoService.buscarAlteracoes(usuario(idUsuario).getId(), cursor, tamanho);
+            return ResponseEntity.ok().body(alteracoes);
+        } catch (ErroAutenticacao | RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (SincronizacaoExpiradaException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity obterPorId(@PathVariable("id") Long idLancamento) {
+        try {
+            DadosLancamento dados = lancamentoService.obterDados(idLancamento);
+            validarDono(dados.getUsuario());
+            return ResponseEntity.ok(dados);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(value = "usuario", required = false) Long idInformado,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+        long idUsuario;
+        try {
+            idUsuario = idUsuario(idInformado);
+            if (AutenticacaoTokenFilter.usuarioAutenticado().isEmpty()) {
+                usuarioService.obterPorId(idUsuario);
+            }
+        } catch (ErroAutenticacao e) {
+            return erroExportacao(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (AcessoNegadoException e) {
+            return erroExportacao(HttpStatus.FORBIDDEN, e.getMessage());
+        }
+
+        StreamingResponseBody corpo;
+        MediaType tipo;
+        if (FORMATO_CSV.equalsIgnoreCase(formato)) {
+            tipo = new MediaType("text", "csv", StandardCharsets.UTF_8);
+            corpo = saida -> exportarCsv(idUsuario, saida);
+        } else if (FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            tipo = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+            corpo = saida -> exportarNdjson(idUsuario, saida);
+        } else {
+            return erroExportacao(HttpStatus.BAD_REQUEST, "Formato de exportação inválido, utilize ndjson ou csv.");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos." + formato.toLowerCase(Locale.ROOT))
+                .body(corpo);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> erroExportacao(HttpStatus status, String mensagem) {
+        return ResponseEntity.status(status)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void exportarNdjson(long idUsuario, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        ObjectWriter objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        lancamentoService.exportar(idUsuario, lancamento -> {
+            try {
+                objectWriter.writeValue(writer, DadosLancamento.de(lancamento));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void exportarCsv(long idUsuario, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write("id;descricao;mes;ano;valor;tipo;status\n");
+        lancamentoService.exportar(idUsuario, lancamento -> {
+            try {
+                writer.write(lancamento.getId() + ";"
+                        + campoCsv(lancamento.getDescricao()) + ";"
+                        + lancamento.getMes() + ";"
+                        + lancamento.getAno() + ";"
+                        + lancamento.getValor().toPlainString() + ";"
+                        + lancamento.getTipo() + ";"
+                        + lancamento.getStatus() + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Prefixa com {@code '} os valores que uma planilha interpretaria como fórmula.
+     */
+    public static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (!valor.isEmpty() && INICIO_FORMULA.indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    private static StatusLancamento status(String status) {
+        if (status == null) {
+            throw new IllegalArgumentException();
+        }
+        return StatusLancamento.valueOf(status.toUpperCase(Locale.ROOT));
+    }
+
+    private Optional<Usuario> buscarUsuario(Long idUsuario) {
+        try {
+            return Optional.of(usuario(idUsuario));
+        } catch (ErroAutenticacao e) {
+            return Optional.empty();
+        }
+    }
+
+    private Usuario usuario(Long idInformado) {
+        Long idUsuario = idUsuario(idInformado);
+        if (AutenticacaoTokenFilter.usuarioAutenticado().isPresent()) {
+            return usuarioService.obterReferenciaAutenticada(idUsuario);
+        }
+        return usuarioService.obterReferencia(idUsuario);
+    }
+
+    private static Long idUsuario(Long idInformado) {
+        Optional<Long> autenticado = AutenticacaoTokenFilter.usuarioAutenticado();
+        if (autenticado.isEmpty()) {
+            if (idInformado == null) {
+                throw new ErroAutenticacao("Informe o usuário dos lançamentos.");
+            }
+            return idInformado;
+        }
+        if (idInformado != null && !idInformado.equals(autenticado.get())) {
+            throw new AcessoNegadoException("Usuário informado não corresponde ao usuário autenticado.");
+        }
+        return autenticado.get();
+    }
+
+    /**
+     * ETag forte das respostas derivadas dos lançamentos do usuário. A versão é lida antes dos dados,
+     * então uma resposta nunca é marcada com uma versão mais nova que o seu conteúdo. É o contador de
+     * alterações, criado com o usuário e incrementado também pelas reconciliações de saldo e resumo.
+     */
+    static String etag(Long idUsuario, long versao) {
+        return "\"" + idUsuario + "-" + versao + "\"";
+    }
+
+    static boolean naoModificado(HttpHeaders headers, String etag) {
+        return headers.getIfNoneMatch().stream()
+                .anyMatch(informado -> informado.equals("*") || informado.equals(etag) || informado.equals("W/" + etag));
+    }
+
+    private static void validarDono(Long idUsuario) {
+        Optional<Long> autenticado = AutenticacaoTokenFilter.usuarioAutenticado();
+        if (autenticado.isPresent() && !autenticado.get().equals(idUsuario)) {
+            throw new AcessoNegadoException("Lançamento não pertence ao usuário autenticado.");
         }
     }
 
     private Lancamento converter(LancamentoDTO lancamentoDTO) {
+        return converter(lancamentoDTO, usuario(lancamentoDTO.getUsuario()));
+    }
+
+    static Lancamento converter(LancamentoDTO lancamentoDTO, Usuario usuario) {
         return Lancamento.builder()
-                .usuario(usuarioService.obterPorId(lancamentoDTO.getUsuario()))
+                .usuario(usuario)
                 .descricao(lancamentoDTO.getDescricao())
                 .status(lancamentoDTO.getStatus())
                 .valor(lancamentoDTO.getValor())
@@ -1,20 +1,29 @@
 package com.maquirino.minhasfinancas.api.resource;
 
 import com.maquirino.minhasfinancas.api.dto.LoginDTO;
+import com.maquirino.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
 import com.maquirino.minhasfinancas.api.dto.UsuarioDTO;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
 import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.TokenService;
 import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -28,14 +37,19 @@ public class UsuarioResource {
     @Autowired
     private LancamentoService lancamentoService;
 
+    @Autowired
+    private TokenService tokenService;
+
     @PostMapping("autenticar")
-    public ResponseEntity autenticar(@RequestBody LoginDTO loginDTO) {
-        try {
-            Usuario usuarioAutenticado = usuarioService.autenticar(loginDTO.getEmail(), loginDTO.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado);
-        } catch (ErroAutenticacao e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity> autenticar(@RequestBody LoginDTO loginDTO) {
+        return usuarioService.autenticar(loginDTO.getEmail(), loginDTO.getSenha())
+                .<ResponseEntity>thenApply(usuario -> ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .token(tokenService.gerar(usuario))
+                        .build()))
+                .exceptionally(UsuarioResource::erroAutenticacao);
     }
 
     @PostMapping("salvar")
@@ -54,12 +68,48 @@ public class UsuarioResource {
     }
 
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
+    public ResponseEntity obterSaldo(@PathVariable("id") Long id, @RequestHeader HttpHeaders headers) {
+        Optional<Long> versao = lancamentoService.obterVersaoUsuario(id);
+        String etag = LancamentoResource.etag(id, versao.orElse(0L));
+        if (versao.isPresent() && LancamentoResource.naoModificado(headers, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (versao.isEmpty()) {
+            try {
+                usuarioService.obterPorId(id);
+            } catch (ErroAutenticacao e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+            }
+        }
+        return ResponseEntity.ok().eTag(etag).body(lancamentoService.obterSaldo(id));
+    }
+
+    @GetMapping("{id}/resumo")
+    public ResponseEntity obterResumo(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+            @RequestParam(value = "anoFinal", required = false) Integer anoFinal) {
         try {
-            Usuario usuario = usuarioService.obterPorId(id);
+            usuarioService.obterPorId(id);
         } catch (ErroAutenticacao e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
-        return ResponseEntity.ok(lancamentoService.obterSaldo(id));
+        try {
+            return ResponseEntity.ok(lancamentoService.obterResumo(id, anoInicial, anoFinal));
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity erroAutenticacao(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+        if (causa instanceof ErroAutenticacao) {
+            return ResponseEntity.badRequest().body(causa.getMessage());
+        }
+        if (causa instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Muitas tentativas de autenticação simultâneas, tente novamente em instantes.");
+        }
+        throw erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(erro);
     }
 }
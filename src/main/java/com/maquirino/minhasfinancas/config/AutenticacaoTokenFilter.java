@@ -0,0 +1,80 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.service.TokenService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class AutenticacaoTokenFilter extends OncePerRequestFilter {
+
+    public static final String USUARIO_AUTENTICADO = AutenticacaoTokenFilter.class.getName() + ".usuario";
+
+    private static final String PREFIXO_PROTEGIDO = "/api/lancamentos";
+    private static final String BEARER = "Bearer ";
+
+    @Value("${minhasfinancas.token.obrigatorio:true}")
+    private boolean obrigatorio;
+
+    @Autowired
+    private TokenService tokenService;
+
+    public static Optional<Long> usuarioAutenticado() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((Long) atributos.getAttribute(USUARIO_AUTENTICADO, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.OPTIONS.matches(request.getMethod())
+                || !(caminho.equals(PREFIXO_PROTEGIDO) || caminho.startsWith(PREFIXO_PROTEGIDO + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacao == null || !autorizacao.startsWith(BEARER)) {
+            if (obrigatorio) {
+                naoAutorizado(response, "Informe o token de autenticação.");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            request.setAttribute(USUARIO_AUTENTICADO, tokenService.validar(autorizacao.substring(BEARER.length()).trim()));
+        } catch (ErroAutenticacao e) {
+            naoAutorizado(response, e.getMessage());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static void naoAutorizado(HttpServletResponse response, String mensagem) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+        response.getWriter().write(mensagem);
+    }
+}
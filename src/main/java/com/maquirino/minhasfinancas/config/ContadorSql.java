@@ -0,0 +1,18 @@
+package com.maquirino.minhasfinancas.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class ContadorSql implements StatementInspector {
+
+    private static final ThreadLocal<long[]> TOTAL = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        TOTAL.get()[0]++;
+        return sql;
+    }
+
+    public static long total() {
+        return TOTAL.get()[0];
+    }
+}
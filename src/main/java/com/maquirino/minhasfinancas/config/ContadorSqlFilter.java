@@ -0,0 +1,78 @@
+package com.maquirino.minhasfinancas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Slf4j
+@Component
+public class ContadorSqlFilter extends OncePerRequestFilter {
+
+    public static final String METRICA = "http.server.requests.sql";
+
+    private static final String CONSULTAS = ContadorSqlFilter.class.getName() + ".consultas";
+
+    @Value("${minhasfinancas.sql.limite-por-requisicao:10}")
+    private long limite;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    static void acumular(ServletRequest request, long consultas) {
+        AtomicLong total = (AtomicLong) request.getAttribute(CONSULTAS);
+        if (total != null) {
+            total.addAndGet(consultas);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getAttribute(CONSULTAS) == null) {
+            request.setAttribute(CONSULTAS, new AtomicLong());
+        }
+        long antes = ContadorSql.total();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            acumular(request, ContadorSql.total() - antes);
+            if (!request.isAsyncStarted()) {
+                registrar(request);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request) {
+        long consultas = ((AtomicLong) request.getAttribute(CONSULTAS)).get();
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao == null ? "UNKNOWN" : padrao.toString();
+
+        meterRegistry.ifAvailable(registry -> DistributionSummary.builder(METRICA)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(consultas));
+
+        if (consultas > limite) {
+            log.warn("{} {} executou {} comandos SQL (limite {})", request.getMethod(), uri, consultas, limite);
+        }
+    }
+}
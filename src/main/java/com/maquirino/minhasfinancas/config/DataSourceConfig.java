@@ -0,0 +1,84 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Réplicas de leitura, ativas quando {@code minhasfinancas.datasource.replicas} lista as URLs JDBC das
+ * réplicas. Todas usam o usuário, a senha e as propriedades {@code spring.datasource.hikari.*} da primária.
+ * O {@link LazyConnectionDataSourceProxy} adia a escolha da conexão até o primeiro comando, quando a
+ * transação já está marcada como {@code readOnly}. Exige {@code spring.jpa.open-in-view=false}: com ela
+ * ligada a sessão da requisição segura a primeira conexão e as escritas seguintes iriam para a réplica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.datasource.replicas")
+public class DataSourceConfig {
+
+    public static final String CONSULTA_ATRASO_POSTGRES = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private RoteamentoDataSource roteamento;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${minhasfinancas.datasource.replicas}") List<String> urls,
+            @Value("${minhasfinancas.datasource.atraso-maximo:PT5S}") Duration atrasoMaximo,
+            @Value("${minhasfinancas.datasource.consulta-atraso:" + CONSULTA_ATRASO_POSTGRES + "}") String consultaAtraso) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Réplicas de leitura exigem spring.jpa.open-in-view=false.");
+        }
+        HikariDataSource primaria = pool(properties, environment, properties.determineUrl(), "primaria");
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, urls.get(i).trim(), "replica-" + i);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        roteamento = new RoteamentoDataSource(primaria, replicas, consultaAtraso, atrasoMaximo);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Scheduled(fixedDelayString = "${minhasfinancas.datasource.intervalo-verificacao:5000}")
+    public void verificarAtraso() {
+        if (roteamento != null) {
+            roteamento.verificarAtraso();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException {
+        if (roteamento != null) {
+            roteamento.close();
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String nome) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(nome);
+        return dataSource;
+    }
+}
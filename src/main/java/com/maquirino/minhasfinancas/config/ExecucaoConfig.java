@@ -0,0 +1,162 @@
+package com.maquirino.minhasfinancas.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Modo de execução das requisições. Em {@code minhasfinancas.execucao.modo=assincrono} os handlers
+ * síncronos dos {@link RestController} rodam em um pool próprio e limitado, liberando a thread do Tomcat
+ * enquanto esperam o banco; quando o pool está cheio a requisição é executada na própria thread do Tomcat.
+ */
+@Configuration
+public class ExecucaoConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ContextoRequisicaoInterceptor());
+    }
+
+    /**
+     * Leva a requisição para a thread do pool e soma ao contador da requisição os comandos SQL do handler.
+     * Quando o pool está cheio e o handler roda na própria thread do Tomcat, o {@link ContadorSqlFilter}
+     * já conta esses comandos.
+     */
+    static class ContextoRequisicaoInterceptor implements CallableProcessingInterceptor {
+
+        private static final String THREAD_REQUISICAO = ContextoRequisicaoInterceptor.class.getName() + ".thread";
+
+        private static final ThreadLocal<Long> INICIO = new ThreadLocal<>();
+        private static final ThreadLocal<Boolean> VINCULADO = new ThreadLocal<>();
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            request.setAttribute(THREAD_REQUISICAO, Thread.currentThread(), RequestAttributes.SCOPE_REQUEST);
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            if (RequestContextHolder.getRequestAttributes() == null) {
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                        request.getNativeRequest(HttpServletRequest.class)));
+                VINCULADO.set(Boolean.TRUE);
+            }
+            if (request.getAttribute(THREAD_REQUISICAO, RequestAttributes.SCOPE_REQUEST) != Thread.currentThread()) {
+                INICIO.set(ContadorSql.total());
+            }
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            Long inicio = INICIO.get();
+            if (inicio != null) {
+                ContadorSqlFilter.acumular(request.getNativeRequest(HttpServletRequest.class), ContadorSql.total() - inicio);
+                INICIO.remove();
+            }
+            if (VINCULADO.get() != null) {
+                VINCULADO.remove();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "minhasfinancas.execucao.modo", havingValue = "assincrono")
+    static class Assincrono {
+
+        private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        Assincrono(@Value("${minhasfinancas.execucao.threads:64}") int threads,
+                   @Value("${minhasfinancas.execucao.fila:1000}") int fila) {
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            executor.setQueueCapacity(fila);
+            executor.setThreadNamePrefix("requisicao-");
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.initialize();
+        }
+
+        @PreDestroy
+        public void encerrar() {
+            executor.shutdown();
+        }
+
+        @Bean
+        public WebMvcRegistrations execucaoAssincrona() {
+            Map<Method, Boolean> assincronos = new ConcurrentHashMap<>();
+            return new WebMvcRegistrations() {
+                @Override
+                public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                    return new RequestMappingHandlerAdapter() {
+                        @Override
+                        protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+                            if (assincronos.computeIfAbsent(handlerMethod.getMethod(), m -> assincrono(handlerMethod))) {
+                                return new HandlerAssincrono(handlerMethod, executor);
+                            }
+                            return super.createInvocableHandlerMethod(handlerMethod);
+                        }
+                    };
+                }
+            };
+        }
+
+        private static boolean assincrono(HandlerMethod handlerMethod) {
+            if (!AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), RestController.class)) {
+                return false;
+            }
+            MethodParameter retorno = handlerMethod.getReturnType();
+            if (!ResponseEntity.class.equals(retorno.getParameterType())) {
+                return false;
+            }
+            Class<?> corpo = ResolvableType.forMethodParameter(retorno).getGeneric().resolve();
+            return corpo == null || !(StreamingResponseBody.class.isAssignableFrom(corpo)
+                    || ResponseBodyEmitter.class.isAssignableFrom(corpo));
+        }
+    }
+
+    static class HandlerAssincrono extends ServletInvocableHandlerMethod {
+
+        private final ThreadPoolTaskExecutor executor;
+
+        HandlerAssincrono(HandlerMethod handlerMethod, ThreadPoolTaskExecutor executor) {
+            super(handlerMethod);
+            this.executor = executor;
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                       Object... providedArgs) throws Exception {
+            Object[] argumentos = getMethodArgumentValues(request, mavContainer, providedArgs);
+            return new WebAsyncTask<>(null, executor, () -> doInvoke(argumentos));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.maquirino.minhasfinancas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String METRICA_REPOSITORIO = "spring.data.repository.invocations";
+
+    @Bean
+    public static BeanPostProcessor metricasRepositorioPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        RepositoryMethodInvocationListener listener = new MetricasRepositorioListener(meterRegistry);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean)
+                            .addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class MetricasRepositorioListener implements RepositoryMethodInvocationListener {
+
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+        private volatile MeterRegistry meterRegistry;
+
+        MetricasRepositorioListener(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.meterRegistryProvider = meterRegistryProvider;
+        }
+
+        @Override
+        public void afterInvocation(RepositoryMethodInvocation invocation) {
+            if (meterRegistry == null) {
+                meterRegistry = meterRegistryProvider.getIfAvailable();
+                if (meterRegistry == null) {
+                    return;
+                }
+            }
+            Throwable erro = invocation.getResult() == null ? null : invocation.getResult().getError();
+            Timer.builder(METRICA_REPOSITORIO)
+                    .tag("repository", invocation.getRepositoryInterface().getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("state", invocation.getResult() == null ? "SUCCESS" : invocation.getResult().getState().name())
+                    .tag("exception", erro == null ? "None" : erro.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.maquirino.minhasfinancas.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Envia as transações {@code readOnly} dos serviços para as réplicas em round-robin e todo o resto para a
+ * primária. A réplica escolhida fica fixada na requisição, para que a versão do usuário e os dados lidos
+ * em seguida venham do mesmo ponto da replicação; se ela sair do rodízio a requisição segue na primária,
+ * que nunca está atrás da réplica.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARIA = "primaria";
+
+    static final String ATRIBUTO_REPLICA = "minhasfinancas.replica";
+
+    private static final String PACOTE_SPRING_DATA = "org.springframework.data.";
+
+    private final DataSource primaria;
+    private final Map<String, DataSource> replicas;
+    private final List<String> chaves;
+    private final Set<String> disponiveis = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final String consultaAtraso;
+    private final Duration atrasoMaximo;
+
+    public RoteamentoDataSource(DataSource primaria, List<DataSource> replicas, String consultaAtraso, Duration atrasoMaximo) {
+        this.primaria = primaria;
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + i, replicas.get(i));
+        }
+        this.chaves = new ArrayList<>(this.replicas.keySet());
+        this.disponiveis.addAll(chaves);
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximo = atrasoMaximo;
+
+        Map<Object, Object> destinos = new HashMap<>(this.replicas);
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!leitura()) {
+            return PRIMARIA;
+        }
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        String fixada = requisicao == null ? null : (String) requisicao.getAttribute(ATRIBUTO_REPLICA, RequestAttributes.SCOPE_REQUEST);
+        String chave = fixada == null ? proximaReplica()
+                : PRIMARIA.equals(fixada) || disponiveis.contains(fixada) ? fixada : PRIMARIA;
+        if (requisicao != null && !chave.equals(fixada)) {
+            requisicao.setAttribute(ATRIBUTO_REPLICA, chave, RequestAttributes.SCOPE_REQUEST);
+        }
+        return chave;
+    }
+
+    /**
+     * Mede o atraso de cada réplica e tira do rodízio as que passaram de {@code atraso-maximo} ou não
+     * responderam, devolvendo-as quando voltam ao limite.
+     */
+    public void verificarAtraso() {
+        replicas.forEach((chave, replica) -> {
+            boolean disponivel;
+            try {
+                Duration atraso = medirAtraso(replica);
+                disponivel = atraso.compareTo(atrasoMaximo) <= 0;
+                if (!disponivel && disponiveis.contains(chave)) {
+                    log.warn("Réplica {} fora do rodízio, atraso de {}", chave, atraso);
+                }
+            } catch (SQLException e) {
+                disponivel = false;
+                if (disponiveis.contains(chave)) {
+                    log.warn("Réplica {} fora do rodízio: {}", chave, e.getMessage());
+                }
+            }
+            if (disponivel && disponiveis.add(chave)) {
+                log.info("Réplica {} de volta ao rodízio", chave);
+            } else if (!disponivel) {
+                disponiveis.remove(chave);
+            }
+        });
+    }
+
+    public Set<String> getReplicasDisponiveis() {
+        return Set.copyOf(disponiveis);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            fechar(dataSource);
+        }
+        fechar(primaria);
+    }
+
+    private static boolean leitura() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String transacao = TransactionSynchronizationManager.getCurrentTransactionName();
+        return transacao == null || !transacao.startsWith(PACOTE_SPRING_DATA);
+    }
+
+    private String proximaReplica() {
+        for (int tentativa = 0; tentativa < chaves.size(); tentativa++) {
+            String chave = chaves.get(Math.floorMod(proxima.getAndIncrement(), chaves.size()));
+            if (disponiveis.contains(chave)) {
+                return chave;
+            }
+        }
+        return PRIMARIA;
+    }
+
+    private Duration medirAtraso(DataSource replica) throws SQLException {
+        try (Connection conexao = replica.getConnection();
+             Statement comando = conexao.createStatement()) {
+            comando.setQueryTimeout((int) Math.max(1, atrasoMaximo.getSeconds()));
+            try (ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+                if (!resultado.next() || resultado.getBigDecimal(1) == null) {
+                    return Duration.ZERO;
+                }
+                BigDecimal segundos = resultado.getBigDecimal(1);
+                return Duration.ofMillis(segundos.movePointRight(3).longValue());
+            }
+        }
+    }
+
+    private static void fechar(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.maquirino.minhasfinancas.exception;
+
+public class AcessoNegadoException extends RuntimeException {
+
+    public AcessoNegadoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,21 @@
+package com.maquirino.minhasfinancas.exception;
+
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+
+/**
+ * Importação que parou no meio do extrato. Os blocos gravados antes da falha continuam salvos e o
+ * resultado informa quantos lançamentos entraram e até qual linha o arquivo foi lido.
+ */
+public class ImportacaoInterrompidaException extends RuntimeException {
+
+    private final ResultadoImportacao resultado;
+
+    public ImportacaoInterrompidaException(ResultadoImportacao resultado, Throwable causa) {
+        super(resultado.getFalha(), causa);
+        this.resultado = resultado;
+    }
+
+    public ResultadoImportacao getResultado() {
+        return resultado;
+    }
+}
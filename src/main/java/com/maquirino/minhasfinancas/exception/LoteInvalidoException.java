@@ -0,0 +1,17 @@
+package com.maquirino.minhasfinancas.exception;
+
+import java.util.Map;
+
+public class LoteInvalidoException extends RegraNegocioException {
+
+    private final Map<Integer, String> erros;
+
+    public LoteInvalidoException(Map<Integer, String> erros) {
+        super("Lote de lançamentos inválido, nenhum lançamento foi salvo.");
+        this.erros = erros;
+    }
+
+    public Map<Integer, String> getErros() {
+        return erros;
+    }
+}
@@ -0,0 +1,8 @@
+package com.maquirino.minhasfinancas.exception;
+
+public class SincronizacaoExpiradaException extends RuntimeException {
+
+    public SincronizacaoExpiradaException(String mensagem) {
+        super(mensagem);
+    }
+}
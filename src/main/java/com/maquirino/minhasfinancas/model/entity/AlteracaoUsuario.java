@@ -0,0 +1,36 @@
+package com.maquirino.minhasfinancas.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador de alterações dos lançamentos de cada usuário. As escritas travam esta linha até o commit,
+ * então os valores de {@code alteracao} ficam visíveis na mesma ordem em que foram gerados.
+ * {@code expurgado} é a maior alteração dos lançamentos excluídos que já saíram da retenção; cursores
+ * anteriores a ela não enxergariam essas exclusões.
+ */
+@Data
+@Entity
+@Table(name = "alteracao_usuario", schema = "financas")
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class AlteracaoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column
+    private Long alteracao;
+
+    @Column
+    private Long expurgado;
+}
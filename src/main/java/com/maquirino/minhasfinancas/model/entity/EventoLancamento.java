@@ -0,0 +1,59 @@
+package com.maquirino.minhasfinancas.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
+
+@Data
+@Entity
+@Table(name = "evento_lancamento", schema = "financas", indexes = {
+        @Index(name = "idx_evento_lancamento_pendente", columnList = "data_publicacao, id")
+})
+@Check(constraints = "tipo in ('CRIADO', 'ATUALIZADO', 'STATUS_ALTERADO', 'EXCLUIDO')")
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class EventoLancamento {
+
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_lancamento_id_seq")
+    @SequenceGenerator(name = "evento_lancamento_id_seq", sequenceName = "evento_lancamento_id_seq", schema = "financas", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private TipoEventoLancamento tipo;
+
+    @JsonRawValue
+    @Column(columnDefinition = "text")
+    private String dados;
+
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_publicacao")
+    private LocalDateTime dataPublicacao;
+}
@@ -1,5 +1,6 @@
 package com.maquirino.minhasfinancas.model.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
 import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
 import java.math.BigDecimal;
@@ -7,21 +8,36 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Check;
 
+/**
+ * Os índices que dependem do Postgres, {@code idx_lancamento_usuario_tipo} com {@code INCLUDE (valor)} e
+ * {@code idx_lancamento_descricao_trgm}, só existem em {@code db/minhasfinancas.sql}.
+ */
 @Data
 @Entity
-@Table(schema="financas")
+@Table(schema="financas", indexes = {
+        @Index(name = "idx_lancamento_usuario_periodo", columnList = "id_usuario, ano, mes"),
+        @Index(name = "idx_lancamento_usuario_alteracao", columnList = "id_usuario, alteracao, id")
+})
+@Check(constraints = "tipo in ('RECEITA', 'DESPESA') and status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')")
 @Builder(toBuilder = true)
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
@@ -29,7 +45,8 @@ public class Lancamento {
 
     @Id
     @Column
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_id_seq")
+    @SequenceGenerator(name = "lancamento_id_seq", sequenceName = "lancamento_id_seq", schema = "financas", allocationSize = 50)
     private Long id;
 
     @Column
@@ -52,8 +69,22 @@ public class Lancamento {
     @Enumerated(EnumType.STRING)
     private StatusLancamento status;
 
-    @ManyToOne
+    @Version
+    @Column
+    private Long versao;
+
+    @Column
+    private Long alteracao;
+
+    /**
+     * Serializado sempre como o id, esteja o proxy carregado ou não, igual a {@code DadosLancamento}.
+     * Fica fora de equals, hashCode e toString para não inicializar o proxy.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario")
+    @JsonSerialize(using = Usuario.SerializadorId.class)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Usuario usuario;
 
 }
\ No newline at end of file
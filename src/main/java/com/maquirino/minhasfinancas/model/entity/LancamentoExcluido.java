@@ -0,0 +1,38 @@
+package com.maquirino.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Table(name = "lancamento_excluido", schema = "financas", indexes = {
+        @Index(name = "idx_lancamento_excluido_usuario_alteracao", columnList = "id_usuario, alteracao"),
+        @Index(name = "idx_lancamento_excluido_data", columnList = "data_exclusao")
+})
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class LancamentoExcluido {
+
+    @Id
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column
+    private Long alteracao;
+
+    @Column(name = "data_exclusao")
+    private LocalDateTime dataExclusao;
+}
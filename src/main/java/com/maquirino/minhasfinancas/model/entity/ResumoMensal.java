@@ -0,0 +1,59 @@
+package com.maquirino.minhasfinancas.model.entity;
+
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
+
+@Data
+@Entity
+@Table(name = "resumo_mensal", schema = "financas",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"id_usuario", "ano", "mes", "tipo", "status"}))
+@Check(constraints = "tipo in ('RECEITA', 'DESPESA') and status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')")
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ResumoMensal {
+
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column
+    private Integer ano;
+
+    @Column
+    private Integer mes;
+
+    @Column
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    @Column
+    private BigDecimal total;
+
+    @Column
+    private Long quantidade;
+}
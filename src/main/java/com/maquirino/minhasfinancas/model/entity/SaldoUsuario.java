@@ -0,0 +1,35 @@
+package com.maquirino.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column
+    private BigDecimal receitas;
+
+    @Column
+    private BigDecimal despesas;
+
+    public BigDecimal getSaldo() {
+        return receitas.subtract(despesas);
+    }
+}
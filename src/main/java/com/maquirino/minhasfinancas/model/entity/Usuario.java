@@ -1,6 +1,10 @@
 package com.maquirino.minhasfinancas.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -36,4 +40,19 @@ public class Usuario {
     @JsonIgnore
     @Column(name = "senha")
     private String senha;
-}
\ No newline at end of file
+
+    /**
+     * Escreve só o id. Ler o id de um proxy do Hibernate não o inicializa.
+     */
+    public static class SerializadorId extends StdSerializer<Usuario> {
+
+        public SerializadorId() {
+            super(Usuario.class);
+        }
+
+        @Override
+        public void serialize(Usuario usuario, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(usuario.getId());
+        }
+    }
+}
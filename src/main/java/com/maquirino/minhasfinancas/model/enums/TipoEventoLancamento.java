@@ -0,0 +1,9 @@
+package com.maquirino.minhasfinancas.model.enums;
+
+public enum TipoEventoLancamento {
+
+    CRIADO,
+    ATUALIZADO,
+    STATUS_ALTERADO,
+    EXCLUIDO
+}
@@ -0,0 +1,16 @@
+package com.maquirino.minhasfinancas.model.pagination;
+
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class AlteracoesLancamento {
+
+    private List<DadosLancamento> lancamentos;
+    private List<Long> excluidos;
+    private String proximoCursor;
+    private boolean temMais;
+}
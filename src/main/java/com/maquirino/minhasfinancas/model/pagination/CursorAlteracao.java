@@ -0,0 +1,32 @@
+package com.maquirino.minhasfinancas.model.pagination;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class CursorAlteracao {
+
+    public static final CursorAlteracao INICIO = new CursorAlteracao(0L, 0L);
+
+    private static final String SEPARADOR = ":";
+
+    Long alteracao;
+    Long id;
+
+    public static CursorAlteracao decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split(SEPARADOR);
+            return new CursorAlteracao(Long.valueOf(partes[0]), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RegraNegocioException("Cursor de sincronização inválido.");
+        }
+    }
+
+    public String codificar() {
+        String valor = alteracao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.maquirino.minhasfinancas.model.pagination;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class CursorLancamento {
+
+    private static final String SEPARADOR = ":";
+
+    Integer ano;
+    Integer mes;
+    Long id;
+
+    public static CursorLancamento de(DadosLancamento lancamento) {
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static CursorLancamento decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split(SEPARADOR);
+            return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RegraNegocioException("Cursor de paginação inválido.");
+        }
+    }
+
+    public String codificar() {
+        String valor = ano + SEPARADOR + mes + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
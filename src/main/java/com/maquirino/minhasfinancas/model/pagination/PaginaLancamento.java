@@ -0,0 +1,14 @@
+package com.maquirino.minhasfinancas.model.pagination;
+
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class PaginaLancamento {
+
+    private List<DadosLancamento> lancamentos;
+    private String proximoCursor;
+}
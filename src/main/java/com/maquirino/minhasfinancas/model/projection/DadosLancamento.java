@@ -0,0 +1,27 @@
+package com.maquirino.minhasfinancas.model.projection;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import lombok.Value;
+
+@Value
+public class DadosLancamento {
+
+    Long id;
+    String descricao;
+    Integer mes;
+    Integer ano;
+    BigDecimal valor;
+    TipoLancamento tipo;
+    StatusLancamento status;
+    Long versao;
+    Long usuario;
+
+    public static DadosLancamento de(Lancamento lancamento) {
+        return new DadosLancamento(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(),
+                lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(),
+                lancamento.getVersao(), lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId());
+    }
+}
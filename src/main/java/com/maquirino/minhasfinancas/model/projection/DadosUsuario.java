@@ -0,0 +1,19 @@
+package com.maquirino.minhasfinancas.model.projection;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import lombok.Value;
+
+/**
+ * Cópia imutável do usuário, sem a senha, guardada no cache {@code usuarios}.
+ */
+@Value
+public class DadosUsuario {
+
+    Long id;
+    String nome;
+    String email;
+
+    public static DadosUsuario de(Usuario usuario) {
+        return new DadosUsuario(usuario.getId(), usuario.getNome(), usuario.getEmail());
+    }
+}
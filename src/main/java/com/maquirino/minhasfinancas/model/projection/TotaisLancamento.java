@@ -0,0 +1,12 @@
+package com.maquirino.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+public interface TotaisLancamento {
+
+    Long getIdUsuario();
+
+    BigDecimal getReceitas();
+
+    BigDecimal getDespesas();
+}
@@ -0,0 +1,18 @@
+package com.maquirino.minhasfinancas.model.projection;
+
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import lombok.Value;
+
+@Value
+public class TotaisResumo {
+
+    Long idUsuario;
+    Integer ano;
+    Integer mes;
+    TipoLancamento tipo;
+    StatusLancamento status;
+    BigDecimal total;
+    Long quantidade;
+}
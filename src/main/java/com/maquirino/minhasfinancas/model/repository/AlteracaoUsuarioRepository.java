@@ -0,0 +1,32 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AlteracaoUsuarioRepository extends JpaRepository<AlteracaoUsuario, Long> {
+
+    @Modifying
+    @Query(value = "update AlteracaoUsuario a set a.alteracao = a.alteracao + 1 where a.idUsuario = :idUsuario")
+    int incrementar(Long idUsuario);
+
+    @Query(value = "select a.alteracao from AlteracaoUsuario a where a.idUsuario = :idUsuario")
+    Optional<Long> obterAlteracao(Long idUsuario);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select a from AlteracaoUsuario a where a.idUsuario = :idUsuario")
+    Optional<AlteracaoUsuario> travar(Long idUsuario);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "update financas.alteracao_usuario a set expurgado = " +
+            "(select max(e.alteracao) from financas.lancamento_excluido e " +
+            "where e.id_usuario = a.id_usuario and e.data_exclusao < :limite and e.alteracao > a.expurgado) " +
+            "where exists (select 1 from financas.lancamento_excluido e " +
+            "where e.id_usuario = a.id_usuario and e.data_exclusao < :limite and e.alteracao > a.expurgado)")
+    int expurgarAte(LocalDateTime limite);
+}
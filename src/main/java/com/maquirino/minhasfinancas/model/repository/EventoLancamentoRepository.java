@@ -0,0 +1,34 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface EventoLancamentoRepository extends JpaRepository<EventoLancamento, Long> {
+
+    /**
+     * Eventos ainda não publicados, em ordem de criação. O timeout {@code -2} vira {@code skip locked}
+     * no Postgres, para que mais de uma instância publique lotes diferentes ao mesmo tempo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(value = "select e from EventoLancamento e where e.dataPublicacao is null order by e.id")
+    List<EventoLancamento> obterPendentes(Pageable pagina);
+
+    @Modifying
+    @Query(value = "update EventoLancamento e set e.dataPublicacao = :data where e.id in :ids")
+    int marcarPublicados(Collection<Long> ids, LocalDateTime data);
+
+    @Modifying
+    @Query(value = "delete from EventoLancamento e where e.dataPublicacao < :limite")
+    int excluirPublicadosAte(LocalDateTime limite);
+}
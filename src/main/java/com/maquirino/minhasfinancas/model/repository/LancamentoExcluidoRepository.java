@@ -0,0 +1,21 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface LancamentoExcluidoRepository extends JpaRepository<LancamentoExcluido, Long> {
+
+    @Query(value = "select e from LancamentoExcluido e where e.idUsuario = :idUsuario and e.alteracao <= :ate " +
+            "and (e.alteracao > :alteracao or (e.alteracao = :alteracao and e.idLancamento > :id)) " +
+            "order by e.alteracao, e.idLancamento")
+    List<LancamentoExcluido> buscarExcluidos(Long idUsuario, Long alteracao, Long id, Long ate, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from LancamentoExcluido e where e.dataExclusao < :limite")
+    int excluirAte(LocalDateTime limite);
+}
@@ -1,13 +1,66 @@
 package com.maquirino.minhasfinancas.model.repository;
 
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
-import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
-import java.math.BigDecimal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
-    @Query(value = "select sum(l.valor) from Lancamento l join l.usuario u " +
-            "where u.id = :idUsuario and l.tipo = :tipo group by u")
-    BigDecimal obterSaldoPorTipoLancamentoEUsuario(Long idUsuario, TipoLancamento tipo);
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
+
+    String TOTAIS_POR_USUARIO = "select l.usuario.id as idUsuario, " +
+            "coalesce(sum(case when l.tipo = com.maquirino.minhasfinancas.model.enums.TipoLancamento.RECEITA " +
+            "then l.valor else 0 end), 0) as receitas, " +
+            "coalesce(sum(case when l.tipo = com.maquirino.minhasfinancas.model.enums.TipoLancamento.DESPESA " +
+            "then l.valor else 0 end), 0) as despesas " +
+            "from Lancamento l ";
+
+    @Query(value = TOTAIS_POR_USUARIO + "where l.usuario.id = :idUsuario group by l.usuario.id")
+    Optional<TotaisLancamento> obterTotaisPorUsuario(Long idUsuario);
+
+    @Query(value = "select new com.maquirino.minhasfinancas.model.projection.TotaisResumo(" +
+            "l.usuario.id, l.ano, l.mes, l.tipo, l.status, coalesce(sum(l.valor), 0), count(l)) " +
+            "from Lancamento l where l.usuario.id = :idUsuario group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+    List<TotaisResumo> obterTotaisResumo(Long idUsuario);
+
+    /**
+     * Troca o status se o lançamento ainda está na versão lida, gravando como alteração o próximo valor do
+     * contador do usuário, que a transação já deve ter travado.
+     */
+    @Modifying
+    @Query(value = "update Lancamento l set l.status = :status, l.versao = l.versao + 1, " +
+            "l.alteracao = (select a.alteracao + 1 from AlteracaoUsuario a where a.idUsuario = :idUsuario) " +
+            "where l.id = :id and l.usuario.id = :idUsuario and l.status <> :status and l.versao = :versao")
+    int atualizarStatus(Long id, Long idUsuario, StatusLancamento status, Long versao);
+
+    @Query(value = "select l from Lancamento l where l.usuario.id = :idUsuario and l.alteracao <= :ate " +
+            "and (l.alteracao > :alteracao or (l.alteracao = :alteracao and l.id > :id)) " +
+            "order by l.alteracao, l.id")
+    List<Lancamento> buscarAlteracoes(Long idUsuario, Long alteracao, Long id, Long ate, Pageable pageable);
+
+    @Query(value = "select new com.maquirino.minhasfinancas.model.projection.DadosLancamento(" +
+            "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.versao, l.usuario.id) " +
+            "from Lancamento l where l.id = :id")
+    Optional<DadosLancamento> obterDados(Long id);
+
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(value = "select l from Lancamento l where l.usuario.id = :idUsuario order by l.id")
+    Stream<Lancamento> streamPorUsuario(Long idUsuario);
 }
@@ -0,0 +1,20 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import java.util.Collection;
+import java.util.List;
+
+public interface LancamentoRepositoryCustom {
+
+    List<DadosLancamento> buscarPagina(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite);
+
+    int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
+
+    List<DadosLancamento> obterDadosParaAtualizacao(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
+
+    List<TotaisResumo> obterResumoParaAtualizacao(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
+}
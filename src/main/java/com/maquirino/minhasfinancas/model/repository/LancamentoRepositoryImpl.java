@@ -0,0 +1,154 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DadosLancamento> buscarPagina(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DadosLancamento> query = cb.createQuery(DadosLancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        Path<Integer> ano = root.get("ano");
+        Path<Integer> mes = root.get("mes");
+        Path<Long> id = root.get("id");
+        Path<Long> usuario = root.get("usuario").get("id");
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal(usuario, lancamentoFiltro.getUsuario().getId()));
+        if (lancamentoFiltro.getAno() != null) {
+            predicados.add(cb.equal(ano, lancamentoFiltro.getAno()));
+        }
+        if (lancamentoFiltro.getMes() != null) {
+            predicados.add(cb.equal(mes, lancamentoFiltro.getMes()));
+        }
+        if (lancamentoFiltro.getDescricao() != null) {
+            predicados.add(cb.like(cb.lower(root.get("descricao")), contendo(lancamentoFiltro.getDescricao()), ESCAPE));
+        }
+        if (cursor != null) {
+            predicados.add(cb.greaterThanOrEqualTo(ano, cursor.getAno()));
+            predicados.add(cb.or(
+                    cb.greaterThan(ano, cursor.getAno()),
+                    cb.and(cb.equal(ano, cursor.getAno()), cb.greaterThan(mes, cursor.getMes())),
+                    cb.and(cb.equal(ano, cursor.getAno()), cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(DadosLancamento.class, id, root.get("descricao"), mes, ano, root.get("valor"),
+                        root.get("tipo"), root.get("status"), root.get("versao"), usuario))
+                .where(predicados.toArray(new Predicate[0]))
+                .orderBy(cb.asc(ano), cb.asc(mes), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+        Path<Long> versao = root.get("versao");
+
+        Subquery<Long> alteracao = update.subquery(Long.class);
+        Root<AlteracaoUsuario> contador = alteracao.from(AlteracaoUsuario.class);
+        alteracao.select(cb.sum(contador.<Long>get("alteracao"), 1L))
+                .where(cb.equal(contador.get("idUsuario"), lancamentoFiltro.getUsuario().getId()));
+
+        update.set(root.<StatusLancamento>get("status"), status)
+                .set(versao, cb.sum(versao, 1L))
+                .set(root.<Long>get("alteracao"), alteracao)
+                .where(predicadosAtualizacao(cb, root, lancamentoFiltro, ids, status));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<DadosLancamento> obterDadosParaAtualizacao(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DadosLancamento> query = cb.createQuery(DadosLancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.select(cb.construct(DadosLancamento.class, root.get("id"), root.get("descricao"), root.get("mes"),
+                        root.get("ano"), root.get("valor"), root.get("tipo"), root.get("status"), root.get("versao"),
+                        root.get("usuario").get("id")))
+                .where(predicadosAtualizacao(cb, root, lancamentoFiltro, ids, status))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<TotaisResumo> obterResumoParaAtualizacao(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TotaisResumo> query = cb.createQuery(TotaisResumo.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        Path<Long> usuario = root.get("usuario").get("id");
+        Path<Integer> ano = root.get("ano");
+        Path<Integer> mes = root.get("mes");
+        Path<TipoLancamento> tipo = root.get("tipo");
+        Path<StatusLancamento> statusAtual = root.get("status");
+
+        query.select(cb.construct(TotaisResumo.class, usuario, ano, mes, tipo, statusAtual,
+                        cb.sum(root.<BigDecimal>get("valor")), cb.count(root)))
+                .where(predicadosAtualizacao(cb, root, lancamentoFiltro, ids, status))
+                .groupBy(usuario, ano, mes, tipo, statusAtual);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static Predicate[] predicadosAtualizacao(CriteriaBuilder cb, Root<Lancamento> root, Lancamento lancamentoFiltro,
+                                                     Collection<Long> ids, StatusLancamento status) {
+        Path<StatusLancamento> statusAtual = root.get("status");
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal(root.get("usuario").get("id"), lancamentoFiltro.getUsuario().getId()));
+        predicados.add(cb.notEqual(statusAtual, status));
+        if (ids != null && !ids.isEmpty()) {
+            predicados.add(root.get("id").in(ids));
+        }
+        if (lancamentoFiltro.getAno() != null) {
+            predicados.add(cb.equal(root.get("ano"), lancamentoFiltro.getAno()));
+        }
+        if (lancamentoFiltro.getMes() != null) {
+            predicados.add(cb.equal(root.get("mes"), lancamentoFiltro.getMes()));
+        }
+        if (lancamentoFiltro.getStatus() != null) {
+            predicados.add(cb.equal(statusAtual, lancamentoFiltro.getStatus()));
+        }
+        return predicados.toArray(new Predicate[0]);
+    }
+
+    private static String contendo(String termo) {
+        String escapado = termo.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(ESCAPE), String.valueOf(ESCAPE) + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+        return "%" + escapado + "%";
+    }
+}
@@ -0,0 +1,25 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, Long> {
+
+    @Modifying
+    @Query(value = "update ResumoMensal r set r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade " +
+            "where r.idUsuario = :idUsuario and r.ano = :ano and r.mes = :mes and r.tipo = :tipo and r.status = :status")
+    int acumular(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status,
+                 BigDecimal total, Long quantidade);
+
+    @Query(value = "select r from ResumoMensal r where r.idUsuario = :idUsuario and r.ano between :anoInicial and :anoFinal " +
+            "and r.quantidade > 0 order by r.ano, r.mes, r.tipo, r.status")
+    List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal);
+
+    List<ResumoMensal> findByIdUsuario(Long idUsuario);
+}
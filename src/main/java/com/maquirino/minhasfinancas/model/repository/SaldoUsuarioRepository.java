@@ -0,0 +1,15 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.SaldoUsuario;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Modifying
+    @Query(value = "update SaldoUsuario s set s.receitas = s.receitas + :receitas, " +
+            "s.despesas = s.despesas + :despesas where s.idUsuario = :idUsuario")
+    int acumular(Long idUsuario, BigDecimal receitas, BigDecimal despesas);
+}
@@ -1,12 +1,35 @@
 package com.maquirino.minhasfinancas.model.repository;
 
 import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+/**
+ * O cache {@code usuarios} guarda {@link DadosUsuario}, nunca a entidade gerenciada nem a senha. A busca por
+ * email fica fora do cache: o login precisa da senha atual e o BCrypt domina o custo da consulta.
+ */
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    String CACHE_POR_ID = "usuarios";
+
     boolean existsByEmail(String email);
 
+    @Query(value = "select u.id from Usuario u order by u.id")
+    List<Long> obterIds();
+
     Optional<Usuario> findByEmail(String email);
+
+    @Cacheable(cacheNames = CACHE_POR_ID)
+    @Query(value = "select new com.maquirino.minhasfinancas.model.projection.DadosUsuario(u.id, u.nome, u.email) " +
+            "from Usuario u where u.id = :id")
+    Optional<DadosUsuario> obterDados(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_POR_ID, key = "#result.id")
+    <S extends Usuario> S save(S usuario);
 }
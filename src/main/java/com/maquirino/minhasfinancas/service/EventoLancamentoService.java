@@ -0,0 +1,16 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.util.List;
+
+public interface EventoLancamentoService {
+
+    void registrar(TipoEventoLancamento tipo, DadosLancamento lancamento);
+
+    void registrar(TipoEventoLancamento tipo, List<DadosLancamento> lancamentos);
+
+    int publicar();
+
+    void limpar();
+}
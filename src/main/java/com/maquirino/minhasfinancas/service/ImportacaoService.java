@@ -0,0 +1,11 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.service.importacao.FormatoExtrato;
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+import java.io.InputStream;
+
+public interface ImportacaoService {
+
+    ResultadoImportacao importar(InputStream entrada, FormatoExtrato formato, Usuario usuario);
+}
@@ -1,25 +1,54 @@
 package com.maquirino.minhasfinancas.service;
 
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.pagination.AlteracoesLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    List<Lancamento> salvar(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
-    List<Lancamento> buscar(Lancamento lancamentoFiltro);
+    PaginaLancamento buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho);
+
+    AlteracoesLancamento buscarAlteracoes(Long idUsuario, String cursor, Integer tamanho);
+
+    Optional<Long> obterVersaoUsuario(Long idUsuario);
+
+    void exportar(Long idUsuario, Consumer<Lancamento> consumidor);
 
     Lancamento atualizarStatus(Lancamento lancamento, StatusLancamento statusLancamento);
 
+    /**
+     * Atualiza o status de um lançamento e devolve os dados atualizados. Com {@code idUsuario} informado só
+     * altera lançamentos desse usuário, lançando {@link com.maquirino.minhasfinancas.exception.AcessoNegadoException}
+     * para os demais; com {@code versao} desatualizada lança
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException}, como a atualização completa.
+     */
+    DadosLancamento atualizarStatus(Long idLancamento, StatusLancamento statusLancamento, Long versao, Long idUsuario);
+
+    int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusLancamento);
+
     void validar(Lancamento lancamento);
 
     Lancamento obterPorId(Long idLancamento);
 
+    DadosLancamento obterDados(Long idLancamento);
+
     BigDecimal obterSaldo(Long id);
+
+    List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal);
 }
@@ -0,0 +1,14 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import java.util.List;
+
+/**
+ * Destino dos eventos de lançamento publicados pelo relay de {@link EventoLancamentoService}. Uma
+ * exceção mantém o lote pendente para a próxima execução, então a entrega é pelo menos uma vez e os
+ * consumidores devem descartar eventos repetidos pelo {@code id}.
+ */
+public interface PublicadorEventos {
+
+    void publicar(List<EventoLancamento> eventos);
+}
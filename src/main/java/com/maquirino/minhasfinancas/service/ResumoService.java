@@ -0,0 +1,22 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import java.util.List;
+
+public interface ResumoService {
+
+    void registrar(Lancamento lancamento);
+
+    void registrar(List<Lancamento> lancamentos);
+
+    void estornar(Lancamento lancamento);
+
+    void alterarStatus(List<TotaisResumo> anteriores, StatusLancamento status);
+
+    List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal);
+
+    void reconciliar();
+}
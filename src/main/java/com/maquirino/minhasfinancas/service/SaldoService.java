@@ -0,0 +1,18 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SaldoService {
+
+    void registrar(Lancamento lancamento);
+
+    void registrar(List<Lancamento> lancamentos);
+
+    void estornar(Lancamento lancamento);
+
+    BigDecimal obterSaldo(Long idUsuario);
+
+    void reconciliar();
+}
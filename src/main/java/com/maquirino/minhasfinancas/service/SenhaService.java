@@ -0,0 +1,15 @@
+package com.maquirino.minhasfinancas.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface SenhaService {
+
+    <T> CompletableFuture<T> executar(Supplier<T> tarefa);
+
+    String codificar(String senha);
+
+    boolean confere(String senha, String senhaArmazenada);
+
+    boolean precisaAtualizar(String senhaArmazenada);
+}
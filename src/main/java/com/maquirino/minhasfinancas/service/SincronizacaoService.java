@@ -0,0 +1,29 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import java.util.List;
+import java.util.Optional;
+
+public interface SincronizacaoService {
+
+    void iniciar(Long idUsuario);
+
+    boolean travar(Long idUsuario);
+
+    void incrementar(Long idUsuario);
+
+    long registrar(Long idUsuario);
+
+    void registrar(Lancamento lancamento);
+
+    void registrar(List<Lancamento> lancamentos);
+
+    void registrarExclusao(Lancamento lancamento);
+
+    Optional<Long> obterAlteracao(Long idUsuario);
+
+    Optional<AlteracaoUsuario> obterContador(Long idUsuario);
+
+    void limpar();
+}
@@ -0,0 +1,11 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+
+public interface TokenService {
+
+    String gerar(Usuario usuario);
+
+    Long validar(String token) throws ErroAutenticacao;
+}
@@ -1,16 +1,21 @@
 package com.maquirino.minhasfinancas.service;
 
-import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsuarioService {
 
-    Usuario autenticar(String email, String senha) throws ErroAutenticacao;
+    CompletableFuture<Usuario> autenticar(String email, String senha);
 
     Usuario salvarUsuario(Usuario usuario);
 
     void validarEmail(String email) throws RegraNegocioException;
 
-    Usuario obterPorId(Long id);
+    DadosUsuario obterPorId(Long id);
+
+    Usuario obterReferencia(Long id);
+
+    Usuario obterReferenciaAutenticada(Long id);
 }
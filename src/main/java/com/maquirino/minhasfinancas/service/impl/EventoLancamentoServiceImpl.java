@@ -0,0 +1,112 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.repository.EventoLancamentoRepository;
+import com.maquirino.minhasfinancas.service.EventoLancamentoService;
+import com.maquirino.minhasfinancas.service.PublicadorEventos;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Outbox dos lançamentos: os eventos são gravados na mesma transação da alteração e um relay
+ * agendado os entrega em lotes ao {@link PublicadorEventos}, marcando-os como publicados.
+ */
+@Slf4j
+@Service
+public class EventoLancamentoServiceImpl implements EventoLancamentoService {
+
+    @Autowired
+    EventoLancamentoRepository repository;
+
+    @Autowired
+    PublicadorEventos publicador;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${minhasfinancas.eventos.lote:500}")
+    int tamanhoLote = 500;
+
+    @Value("${minhasfinancas.eventos.retencao:P7D}")
+    Duration retencao = Duration.ofDays(7);
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoLancamento tipo, DadosLancamento lancamento) {
+        repository.save(evento(tipo, lancamento, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoLancamento tipo, List<DadosLancamento> lancamentos) {
+        LocalDateTime agora = LocalDateTime.now();
+        repository.saveAll(lancamentos.stream()
+                .map(lancamento -> evento(tipo, lancamento, agora))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${minhasfinancas.eventos.intervalo:1000}")
+    public int publicar() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int publicados;
+        do {
+            publicados = transacao.execute(status -> publicarLote());
+            total += publicados;
+        } while (publicados == tamanhoLote);
+        return total;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${minhasfinancas.eventos.limpeza.cron:0 0 4 * * *}")
+    public void limpar() {
+        int excluidos = repository.excluirPublicadosAte(LocalDateTime.now().minus(retencao));
+        log.info("{} eventos de lançamento publicados foram excluídos", excluidos);
+    }
+
+    private int publicarLote() {
+        List<EventoLancamento> eventos = repository.obterPendentes(PageRequest.of(0, tamanhoLote));
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        publicador.publicar(eventos);
+        repository.marcarPublicados(eventos.stream().map(EventoLancamento::getId).collect(Collectors.toList()),
+                LocalDateTime.now());
+        return eventos.size();
+    }
+
+    private EventoLancamento evento(TipoEventoLancamento tipo, DadosLancamento lancamento, LocalDateTime data) {
+        try {
+            return EventoLancamento.builder()
+                    .idLancamento(lancamento.getId())
+                    .idUsuario(lancamento.getUsuario())
+                    .tipo(tipo)
+                    .dados(objectMapper.writeValueAsString(lancamento))
+                    .dataCriacao(data)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o lançamento " + lancamento.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.exception.ImportacaoInterrompidaException;
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.service.ImportacaoService;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.importacao.FormatoExtrato;
+import com.maquirino.minhasfinancas.service.importacao.LeitorExtrato;
+import com.maquirino.minhasfinancas.service.importacao.RegistroExtrato;
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class ImportacaoServiceImpl implements ImportacaoService {
+
+    public static final int TAMANHO_BLOCO = 1000;
+    public static final int LIMITE_ERROS_DETALHADOS = 1000;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Override
+    public ResultadoImportacao importar(InputStream entrada, FormatoExtrato formato, Usuario usuario) {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        List<Lancamento> bloco = new ArrayList<>(TAMANHO_BLOCO);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            LeitorExtrato leitor = formato.leitor(reader);
+            RegistroExtrato registro;
+            while ((registro = leitor.proximo()) != null) {
+                resultado.setLinhasLidas(leitor.linhasLidas());
+                if (registro.getErro() != null) {
+                    registrarErro(resultado, registro.getLinha(), registro.getErro());
+                    continue;
+                }
+
+                Lancamento lancamento = registro.getLancamento().toBuilder().usuario(usuario).build();
+                try {
+                    lancamentoService.validar(lancamento);
+                } catch (RegraNegocioException e) {
+                    registrarErro(resultado, registro.getLinha(), e.getMessage());
+                    continue;
+                }
+
+                bloco.add(lancamento);
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    gravar(bloco, resultado, usuario);
+                }
+            }
+            resultado.setLinhasLidas(leitor.linhasLidas());
+        } catch (IOException e) {
+            throw interromper(resultado, usuario, "Não foi possível ler o extrato enviado", e);
+        }
+
+        if (!bloco.isEmpty()) {
+            gravar(bloco, resultado, usuario);
+        }
+        return resultado;
+    }
+
+    private void gravar(List<Lancamento> bloco, ResultadoImportacao resultado, Usuario usuario) {
+        try {
+            lancamentoService.salvar(bloco);
+        } catch (RuntimeException e) {
+            throw interromper(resultado, usuario, "Não foi possível gravar os lançamentos: " + e.getMessage(), e);
+        }
+        resultado.setImportados(resultado.getImportados() + bloco.size());
+        bloco.clear();
+
+        log.info("Importação do usuário {}: {} linhas lidas, {} lançamentos importados, {} erros",
+                usuario.getId(), resultado.getLinhasLidas(), resultado.getImportados(), resultado.getTotalErros());
+    }
+
+    /**
+     * Cada bloco é gravado na sua própria transação, então os anteriores à falha já estão salvos.
+     */
+    private static ImportacaoInterrompidaException interromper(ResultadoImportacao resultado, Usuario usuario, String motivo, Exception causa) {
+        resultado.setFalha(motivo + ". Importação interrompida após a linha " + resultado.getLinhasLidas()
+                + ", " + resultado.getImportados() + " lançamentos foram importados.");
+        log.warn("Importação do usuário {} interrompida: {}", usuario.getId(), resultado.getFalha());
+        return new ImportacaoInterrompidaException(resultado, causa);
+    }
+
+    private static void registrarErro(ResultadoImportacao resultado, int linha, String mensagem) {
+        resultado.setTotalErros(resultado.getTotalErros() + 1);
+        if (resultado.getErros().size() < LIMITE_ERROS_DETALHADOS) {
+            resultado.getErros().add(new ResultadoImportacao.ErroImportacao(linha, mensagem));
+        }
+    }
+}
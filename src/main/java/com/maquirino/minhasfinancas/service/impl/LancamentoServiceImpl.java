@@ -1,33 +1,132 @@
 package com.maquirino.minhasfinancas.service.impl;
 
+import com.maquirino.minhasfinancas.exception.AcessoNegadoException;
+import com.maquirino.minhasfinancas.exception.LoteInvalidoException;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.exception.SincronizacaoExpiradaException;
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
-import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.AlteracoesLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorAlteracao;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import com.maquirino.minhasfinancas.model.repository.LancamentoExcluidoRepository;
 import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.service.EventoLancamentoService;
 import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.ResumoService;
+import com.maquirino.minhasfinancas.service.SaldoService;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+    public static final int QUANTIDADE_MAXIMA_IDS = 1000;
+
+    private static final Comparator<CursorAlteracao> ANTES = Comparator.comparing(CursorAlteracao::getAlteracao)
+            .thenComparing(CursorAlteracao::getId);
+
     @Autowired
     LancamentoRepository repository;
 
+    @Autowired
+    SaldoService saldoService;
+
+    @Autowired
+    ResumoService resumoService;
+
+    @Autowired
+    EventoLancamentoService eventoService;
+
+    @Autowired
+    SincronizacaoService sincronizacaoService;
+
+    @Autowired
+    LancamentoExcluidoRepository excluidoRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int tamanhoLote = 50;
+
     @Override
     @Transactional
     public Lancamento salvar(Lancamento lancamento) {
         validar(lancamento);
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        sincronizacaoService.registrar(lancamento);
+        Lancamento salvo = repository.save(lancamento);
+        saldoService.registrar(salvo);
+        resumoService.registrar(salvo);
+        eventoService.registrar(TipoEventoLancamento.CRIADO, DadosLancamento.de(salvo));
+        return salvo;
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvar(List<Lancamento> lancamentos) {
+        Map<Integer, String> erros = new TreeMap<>();
+        for (int i = 0; i < lancamentos.size(); i++) {
+            try {
+                validar(lancamentos.get(i));
+            } catch (RegraNegocioException e) {
+                erros.put(i, e.getMessage());
+                continue;
+            }
+            if (lancamentos.get(i).getUsuario() == null) {
+                erros.put(i, "Usuário informado não foi encontrado.");
+            }
+        }
+        if (!erros.isEmpty()) {
+            throw new LoteInvalidoException(erros);
+        }
+
+        sincronizacaoService.registrar(lancamentos);
+        for (int i = 0; i < lancamentos.size(); i++) {
+            Lancamento lancamento = lancamentos.get(i);
+            lancamento.setStatus(StatusLancamento.PENDENTE);
+            entityManager.persist(lancamento);
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                // só os lançamentos do lote: o contexto pode ter entidades do chamador ainda não gravadas
+                lancamentos.subList(i + 1 - tamanhoLote, i + 1).forEach(entityManager::detach);
+            }
+        }
+        saldoService.registrar(lancamentos);
+        resumoService.registrar(lancamentos);
+        eventoService.registrar(TipoEventoLancamento.CRIADO, lancamentos.stream()
+                .map(DadosLancamento::de)
+                .collect(Collectors.toList()));
+        return lancamentos;
     }
 
     @Override
@@ -35,7 +134,17 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         validar(lancamento);
-        return repository.save(lancamento);
+        sincronizacaoService.registrar(lancamento);
+        repository.findById(lancamento.getId()).ifPresent(anterior -> {
+            saldoService.estornar(anterior);
+            resumoService.estornar(anterior);
+        });
+        Lancamento atualizado = repository.save(lancamento);
+        saldoService.registrar(atualizado);
+        resumoService.registrar(atualizado);
+        entityManager.flush();
+        eventoService.registrar(TipoEventoLancamento.ATUALIZADO, DadosLancamento.de(atualizado));
+        return atualizado;
     }
 
     @Override
@@ -43,43 +152,190 @@ public class LancamentoServiceImpl implements LancamentoService {
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         repository.delete(lancamento);
+        sincronizacaoService.registrarExclusao(lancamento);
+        saldoService.estornar(lancamento);
+        resumoService.estornar(lancamento);
+        eventoService.registrar(TipoEventoLancamento.EXCLUIDO, DadosLancamento.de(lancamento));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
+    public PaginaLancamento buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho) {
+        int limite = tamanho == null ? TAMANHO_PAGINA_PADRAO : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+        if (limite < 1) {
+            throw new RegraNegocioException("Tamanho de página inválido, por favor informe um valor maior que 0.");
+        }
+        CursorLancamento posicao = cursor == null || cursor.isBlank() ? null : CursorLancamento.decodificar(cursor);
 
-        Example example = Example.of(lancamentoFiltro,
-                ExampleMatcher.matching()
-                        .withIgnoreCase()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        List<DadosLancamento> lancamentos = repository.buscarPagina(lancamentoFiltro, posicao, limite + 1);
 
-        return repository.findAll(example);
+        String proximoCursor = null;
+        if (lancamentos.size() > limite) {
+            lancamentos = lancamentos.subList(0, limite);
+            proximoCursor = CursorLancamento.de(lancamentos.get(limite - 1)).codificar();
+        }
+
+        return PaginaLancamento.builder()
+                .lancamentos(lancamentos)
+                .proximoCursor(proximoCursor)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public BigDecimal obterSaldo(Long id) {
-        BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
+    public AlteracoesLancamento buscarAlteracoes(Long idUsuario, String cursor, Integer tamanho) {
+        int limite = tamanho == null ? TAMANHO_PAGINA_PADRAO : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+        if (limite < 1) {
+            throw new RegraNegocioException("Tamanho de página inválido, por favor informe um valor maior que 0.");
+        }
+        boolean inicio = cursor == null || cursor.isBlank();
+        CursorAlteracao posicao = inicio ? CursorAlteracao.INICIO : CursorAlteracao.decodificar(cursor);
+
+        Optional<AlteracaoUsuario> contador = sincronizacaoService.obterContador(idUsuario);
+        if (!inicio && posicao.getAlteracao() < contador.map(AlteracaoUsuario::getExpurgado).orElse(0L)) {
+            throw new SincronizacaoExpiradaException("Cursor de sincronização expirado, por favor sincronize novamente sem cursor.");
+        }
+        long ate = contador.map(AlteracaoUsuario::getAlteracao).orElse(0L);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Lancamento> lancamentos = repository.buscarAlteracoes(idUsuario, posicao.getAlteracao(), posicao.getId(), ate, pagina);
+        List<LancamentoExcluido> excluidos = excluidoRepository.buscarExcluidos(idUsuario, posicao.getAlteracao(), posicao.getId(), ate, pagina);
 
-        if (receitas == null) {
-            receitas = BigDecimal.ZERO;
+        List<DadosLancamento> alterados = new ArrayList<>();
+        List<Long> removidos = new ArrayList<>();
+        CursorAlteracao ultimo = null;
+        int l = 0;
+        int e = 0;
+        while (l + e < limite && (l < lancamentos.size() || e < excluidos.size())) {
+            CursorAlteracao alterado = l < lancamentos.size()
+                    ? new CursorAlteracao(lancamentos.get(l).getAlteracao(), lancamentos.get(l).getId()) : null;
+            CursorAlteracao removido = e < excluidos.size()
+                    ? new CursorAlteracao(excluidos.get(e).getAlteracao(), excluidos.get(e).getIdLancamento()) : null;
+            if (removido == null || (alterado != null && ANTES.compare(alterado, removido) < 0)) {
+                alterados.add(DadosLancamento.de(lancamentos.get(l++)));
+                ultimo = alterado;
+            } else {
+                removidos.add(excluidos.get(e++).getIdLancamento());
+                ultimo = removido;
+            }
         }
-        if (despesas == null) {
-            despesas = BigDecimal.ZERO;
+
+        boolean temMais = l < lancamentos.size() || e < excluidos.size();
+        CursorAlteracao proximo = temMais ? ultimo : new CursorAlteracao(Math.max(ate, posicao.getAlteracao()), Long.MAX_VALUE);
+
+        return AlteracoesLancamento.builder()
+                .lancamentos(alterados)
+                .excluidos(removidos)
+                .proximoCursor(proximo.codificar())
+                .temMais(temMais)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> obterVersaoUsuario(Long idUsuario) {
+        return sincronizacaoService.obterAlteracao(idUsuario);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(Long idUsuario, Consumer<Lancamento> consumidor) {
+        try (Stream<Lancamento> lancamentos = repository.streamPorUsuario(idUsuario)) {
+            lancamentos.forEach(lancamento -> {
+                consumidor.accept(lancamento);
+                entityManager.detach(lancamento);
+            });
         }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long id) {
+        return saldoService.obterSaldo(id);
+    }
 
-        return receitas.subtract(despesas);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+        return resumoService.obterResumo(idUsuario, anoInicial, anoFinal);
     }
 
     @Override
+    @Transactional
     public Lancamento atualizarStatus(Lancamento lancamento, StatusLancamento statusLancamento) {
 
         lancamento.setStatus(statusLancamento);
         return atualizar(lancamento);
     }
 
+    /**
+     * O resumo precisa do status anterior, então o lançamento é lido antes, sem trava; a atualização só
+     * vale na versão lida e é a única proteção contra escritas concorrentes. O contador do usuário é
+     * travado antes da atualização e só incrementado quando ela altera a linha.
+     */
+    @Override
+    @Transactional
+    public DadosLancamento atualizarStatus(Long id, StatusLancamento statusLancamento, Long versao, Long idUsuario) {
+        Objects.requireNonNull(statusLancamento);
+        DadosLancamento anterior = repository.obterDados(id)
+                .orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado"));
+        if (idUsuario != null && !idUsuario.equals(anterior.getUsuario())) {
+            throw new AcessoNegadoException("Lançamento não pertence ao usuário autenticado.");
+        }
+        if (versao != null && !versao.equals(anterior.getVersao())) {
+            throw new ObjectOptimisticLockingFailureException(Lancamento.class, id);
+        }
+        if (anterior.getStatus() == statusLancamento) {
+            return anterior;
+        }
+
+        sincronizacaoService.travar(anterior.getUsuario());
+        if (repository.atualizarStatus(id, anterior.getUsuario(), statusLancamento, anterior.getVersao()) == 0) {
+            if (repository.obterDados(id).isEmpty()) {
+                throw new RegraNegocioException("Lancamento não encontrado");
+            }
+            throw new ObjectOptimisticLockingFailureException(Lancamento.class, id);
+        }
+        sincronizacaoService.incrementar(anterior.getUsuario());
+
+        DadosLancamento atualizado = comStatus(anterior, statusLancamento);
+        resumoService.alterarStatus(List.of(new TotaisResumo(anterior.getUsuario(), anterior.getAno(), anterior.getMes(),
+                anterior.getTipo(), anterior.getStatus(), anterior.getValor(), 1L)), statusLancamento);
+        eventoService.registrar(TipoEventoLancamento.STATUS_ALTERADO, atualizado);
+        return atualizado;
+    }
+
+    @Override
+    @Transactional
+    public int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusLancamento) {
+        Objects.requireNonNull(statusLancamento);
+        Objects.requireNonNull(lancamentoFiltro.getUsuario());
+        boolean semIds = ids == null || ids.isEmpty();
+        boolean semFiltro = lancamentoFiltro.getAno() == null && lancamentoFiltro.getMes() == null && lancamentoFiltro.getStatus() == null;
+        if (semIds && semFiltro) {
+            throw new RegraNegocioException("Informe os lançamentos ou um filtro de ano, mês ou status para atualizar.");
+        }
+        if (!semIds && ids.size() > QUANTIDADE_MAXIMA_IDS) {
+            throw new RegraNegocioException("Informe no máximo " + QUANTIDADE_MAXIMA_IDS + " lançamentos por atualização.");
+        }
+        List<TotaisResumo> anteriores = repository.obterResumoParaAtualizacao(lancamentoFiltro, ids, statusLancamento);
+        if (anteriores.isEmpty()) {
+            return 0;
+        }
+        List<DadosLancamento> alterando = repository.obterDadosParaAtualizacao(lancamentoFiltro, ids, statusLancamento);
+        Long idUsuario = lancamentoFiltro.getUsuario().getId();
+        sincronizacaoService.travar(idUsuario);
+        int alterados = repository.atualizarStatus(lancamentoFiltro, ids, statusLancamento);
+        if (alterados != anteriores.stream().mapToLong(TotaisResumo::getQuantidade).sum()) {
+            throw new RegraNegocioException("Lançamentos foram alterados por outra operação, por favor tente novamente.");
+        }
+        sincronizacaoService.incrementar(idUsuario);
+        resumoService.alterarStatus(anteriores, statusLancamento);
+        eventoService.registrar(TipoEventoLancamento.STATUS_ALTERADO, alterando.stream()
+                .map(dados -> comStatus(dados, statusLancamento))
+                .collect(Collectors.toList()));
+        return alterados;
+    }
+
     @Override
     public Lancamento obterPorId(Long id) {
         Optional<Lancamento> optionalLancamento = repository.findById(id);
@@ -89,8 +345,24 @@ public class LancamentoServiceImpl implements LancamentoService {
         return optionalLancamento.get();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DadosLancamento obterDados(Long id) {
+        return repository.obterDados(id)
+                .orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado"));
+    }
+
+    private static DadosLancamento comStatus(DadosLancamento dados, StatusLancamento status) {
+        return new DadosLancamento(dados.getId(), dados.getDescricao(), dados.getMes(), dados.getAno(),
+                dados.getValor(), dados.getTipo(), status, dados.getVersao() + 1, dados.getUsuario());
+    }
+
     @Override
     public void validar(Lancamento lancamento) {
+        validarLancamento(lancamento);
+    }
+
+    public static void validarLancamento(Lancamento lancamento) {
 
         boolean erroDescricao = (lancamento.getDescricao() == null || lancamento.getDescricao().isBlank() || lancamento.getDescricao().isEmpty()) ? true : false;
         boolean erroMes = (lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() > 12 ) ? true : false;
@@ -0,0 +1,73 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import com.maquirino.minhasfinancas.service.PublicadorEventos;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publicador padrão: acrescenta os eventos em ndjson a um arquivo e só confirma o lote depois de
+ * sincronizá-lo em disco. Outro destino (um broker, por exemplo) substitui este com
+ * {@code minhasfinancas.eventos.publicador} diferente de {@code arquivo}.
+ */
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.eventos.publicador", havingValue = "arquivo", matchIfMissing = true)
+public class PublicadorEventosArquivo implements PublicadorEventos {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${minhasfinancas.eventos.arquivo:eventos-lancamento.ndjson}")
+    private Path arquivo;
+
+    public PublicadorEventosArquivo() {
+    }
+
+    public PublicadorEventosArquivo(ObjectMapper objectMapper, String arquivo) {
+        this.objectMapper = objectMapper;
+        this.arquivo = Paths.get(arquivo);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoLancamento> eventos) {
+        StringBuilder linhas = new StringBuilder();
+        try {
+            for (EventoLancamento evento : eventos) {
+                linhas.append(objectMapper.writeValueAsString(evento)).append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar os eventos de lançamento", e);
+        }
+
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            try (FileChannel canal = FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = StandardCharsets.UTF_8.encode(linhas.toString());
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.ResumoService;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Resumo mensal mantido incrementalmente. As escritas de lançamentos travam antes o contador do usuário
+ * em {@link SincronizacaoService}; o mesmo contador protege a criação das linhas do resumo e a reconciliação.
+ */
+@Slf4j
+@Service
+public class ResumoServiceImpl implements ResumoService {
+
+    public static final int ANO_MINIMO = 1000;
+    public static final int ANO_MAXIMO = 9999;
+
+    @Autowired
+    ResumoMensalRepository repository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    SincronizacaoService sincronizacaoService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Override
+    @Transactional
+    public void registrar(Lancamento lancamento) {
+        if (contabilizavel(lancamento)) {
+            acumular(chave(lancamento), lancamento.getValor(), 1L);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registrar(List<Lancamento> lancamentos) {
+        Map<ResumoMensal, ResumoMensal> variacoes = new LinkedHashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            if (!contabilizavel(lancamento)) {
+                continue;
+            }
+            ResumoMensal variacao = variacoes.computeIfAbsent(chave(lancamento), chave -> chave.toBuilder()
+                    .total(BigDecimal.ZERO)
+                    .quantidade(0L)
+                    .build());
+            variacao.setTotal(variacao.getTotal().add(lancamento.getValor()));
+            variacao.setQuantidade(variacao.getQuantidade() + 1);
+        }
+        variacoes.forEach((chave, variacao) -> acumular(chave, variacao.getTotal(), variacao.getQuantidade()));
+    }
+
+    @Override
+    @Transactional
+    public void estornar(Lancamento lancamento) {
+        if (contabilizavel(lancamento)) {
+            acumular(chave(lancamento), lancamento.getValor().negate(), -1L);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void alterarStatus(List<TotaisResumo> anteriores, StatusLancamento status) {
+        for (TotaisResumo anterior : anteriores) {
+            if (anterior.getStatus() == status) {
+                continue;
+            }
+            ResumoMensal chave = ResumoMensal.builder()
+                    .idUsuario(anterior.getIdUsuario())
+                    .ano(anterior.getAno())
+                    .mes(anterior.getMes())
+                    .tipo(anterior.getTipo())
+                    .status(anterior.getStatus())
+                    .build();
+            acumular(chave, anterior.getTotal().negate(), -anterior.getQuantidade());
+            acumular(chave.toBuilder().status(status).build(), anterior.getTotal(), anterior.getQuantidade());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+        int inicio = anoInicial == null ? ANO_MINIMO : anoInicial;
+        int fim = anoFinal == null ? ANO_MAXIMO : anoFinal;
+        if (inicio > fim) {
+            throw new RegraNegocioException("Ano inicial deve ser menor ou igual ao ano final.");
+        }
+        return repository.obterResumo(idUsuario, inicio, fim);
+    }
+
+    /**
+     * Corrige o resumo de cada usuário numa transação própria, com o contador dele travado: as escritas
+     * concorrentes esperam e nenhum incremento é perdido ou contado duas vezes. Só a diferença entre o
+     * resumo e os lançamentos é gravada, e uma correção incrementa o contador, que é a versão dos ETags
+     * do usuário.
+     */
+    @Override
+    @Scheduled(cron = "${minhasfinancas.resumo.reconciliacao.cron:0 30 3 * * *}")
+    public void reconciliar() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int corrigidos = 0;
+        for (Long idUsuario : usuarioRepository.obterIds()) {
+            if (Boolean.TRUE.equals(transacao.execute(status -> reconciliar(idUsuario)))) {
+                corrigidos++;
+            }
+        }
+        log.info("Resumo mensal de {} usuários corrigido na reconciliação", corrigidos);
+    }
+
+    private boolean reconciliar(Long idUsuario) {
+        sincronizacaoService.travar(idUsuario);
+        Map<ResumoMensal, ResumoMensal> diferencas = new LinkedHashMap<>();
+        for (ResumoMensal atual : repository.findByIdUsuario(idUsuario)) {
+            diferencas.put(atual.toBuilder().id(null).total(null).quantidade(null).build(), atual.toBuilder()
+                    .total(atual.getTotal().negate())
+                    .quantidade(-atual.getQuantidade())
+                    .build());
+        }
+        for (TotaisResumo totais : lancamentoRepository.obterTotaisResumo(idUsuario)) {
+            ResumoMensal chave = ResumoMensal.builder()
+                    .idUsuario(totais.getIdUsuario())
+                    .ano(totais.getAno())
+                    .mes(totais.getMes())
+                    .tipo(totais.getTipo())
+                    .status(totais.getStatus())
+                    .build();
+            ResumoMensal diferenca = diferencas.computeIfAbsent(chave, c -> c.toBuilder()
+                    .total(BigDecimal.ZERO)
+                    .quantidade(0L)
+                    .build());
+            diferenca.setTotal(diferenca.getTotal().add(totais.getTotal()));
+            diferenca.setQuantidade(diferenca.getQuantidade() + totais.getQuantidade());
+        }
+
+        boolean corrigido = false;
+        for (Map.Entry<ResumoMensal, ResumoMensal> diferenca : diferencas.entrySet()) {
+            BigDecimal total = diferenca.getValue().getTotal();
+            Long quantidade = diferenca.getValue().getQuantidade();
+            if (total.signum() != 0 || quantidade != 0) {
+                acumular(diferenca.getKey(), total, quantidade);
+                corrigido = true;
+            }
+        }
+        if (corrigido) {
+            sincronizacaoService.registrar(idUsuario);
+        }
+        return corrigido;
+    }
+
+    /**
+     * Sem linha para a chave, trava o contador do usuário e tenta de novo antes de inserir; se a transação
+     * já segurava o contador, nenhuma outra pode ter criado a linha depois do primeiro update.
+     */
+    private void acumular(ResumoMensal chave, BigDecimal total, Long quantidade) {
+        if (acumularExistente(chave, total, quantidade) > 0) {
+            return;
+        }
+        if (sincronizacaoService.travar(chave.getIdUsuario()) && acumularExistente(chave, total, quantidade) > 0) {
+            return;
+        }
+        repository.save(chave.toBuilder()
+                .total(total)
+                .quantidade(quantidade)
+                .build());
+    }
+
+    private int acumularExistente(ResumoMensal chave, BigDecimal total, Long quantidade) {
+        return repository.acumular(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(),
+                chave.getStatus(), total, quantidade);
+    }
+
+    private static boolean contabilizavel(Lancamento lancamento) {
+        return lancamento.getUsuario() != null && lancamento.getValor() != null && lancamento.getTipo() != null
+                && lancamento.getStatus() != null && lancamento.getAno() != null && lancamento.getMes() != null;
+    }
+
+    private static ResumoMensal chave(Lancamento lancamento) {
+        return ResumoMensal.builder()
+                .idUsuario(lancamento.getUsuario().getId())
+                .ano(lancamento.getAno())
+                .mes(lancamento.getMes())
+                .tipo(lancamento.getTipo())
+                .status(lancamento.getStatus())
+                .build();
+    }
+}
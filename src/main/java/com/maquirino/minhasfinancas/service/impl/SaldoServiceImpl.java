@@ -0,0 +1,162 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.SaldoUsuario;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.SaldoService;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Saldo mantido incrementalmente, protegido pelo contador do usuário em {@link SincronizacaoService}
+ * como o resumo mensal: as escritas de lançamentos o travam antes de acumular.
+ */
+@Slf4j
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+    @Autowired
+    SaldoUsuarioRepository repository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    SincronizacaoService sincronizacaoService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Override
+    @Transactional
+    public void registrar(Lancamento lancamento) {
+        acumular(lancamento, BigDecimal.ONE);
+    }
+
+    @Override
+    @Transactional
+    public void registrar(List<Lancamento> lancamentos) {
+        Map<Long, SaldoUsuario> variacoes = new HashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            if (!contabilizavel(lancamento)) {
+                continue;
+            }
+            SaldoUsuario variacao = variacoes.computeIfAbsent(lancamento.getUsuario().getId(), SaldoServiceImpl::novoSaldo);
+            if (lancamento.getTipo() == TipoLancamento.RECEITA) {
+                variacao.setReceitas(variacao.getReceitas().add(lancamento.getValor()));
+            } else {
+                variacao.setDespesas(variacao.getDespesas().add(lancamento.getValor()));
+            }
+        }
+        variacoes.values().forEach(variacao -> acumular(variacao.getIdUsuario(), variacao.getReceitas(), variacao.getDespesas()));
+    }
+
+    @Override
+    @Transactional
+    public void estornar(Lancamento lancamento) {
+        acumular(lancamento, BigDecimal.ONE.negate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        return repository.findById(idUsuario)
+                .map(SaldoUsuario::getSaldo)
+                .orElseGet(() -> lancamentoRepository.obterTotaisPorUsuario(idUsuario)
+                        .map(totais -> totais.getReceitas().subtract(totais.getDespesas()))
+                        .orElse(BigDecimal.ZERO));
+    }
+
+    /**
+     * Corrige o saldo de cada usuário numa transação própria, com o contador dele travado, somando só a
+     * diferença para os lançamentos; as escritas concorrentes esperam em vez de serem sobrescritas. Uma
+     * correção incrementa o contador, que é a versão dos ETags do usuário.
+     */
+    @Override
+    @Scheduled(cron = "${minhasfinancas.saldo.reconciliacao.cron:0 0 3 * * *}")
+    public void reconciliar() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int corrigidos = 0;
+        for (Long idUsuario : usuarioRepository.obterIds()) {
+            if (Boolean.TRUE.equals(transacao.execute(status -> reconciliar(idUsuario)))) {
+                corrigidos++;
+            }
+        }
+        log.info("Saldo de {} usuários corrigido na reconciliação", corrigidos);
+    }
+
+    private boolean reconciliar(Long idUsuario) {
+        sincronizacaoService.travar(idUsuario);
+        SaldoUsuario atual = repository.findById(idUsuario).orElseGet(() -> novoSaldo(idUsuario));
+        SaldoUsuario esperado = lancamentoRepository.obterTotaisPorUsuario(idUsuario)
+                .map(totais -> SaldoUsuario.builder()
+                        .idUsuario(idUsuario)
+                        .receitas(totais.getReceitas())
+                        .despesas(totais.getDespesas())
+                        .build())
+                .orElseGet(() -> novoSaldo(idUsuario));
+        BigDecimal receitas = esperado.getReceitas().subtract(atual.getReceitas());
+        BigDecimal despesas = esperado.getDespesas().subtract(atual.getDespesas());
+        if (receitas.signum() == 0 && despesas.signum() == 0) {
+            return false;
+        }
+        acumular(idUsuario, receitas, despesas);
+        sincronizacaoService.registrar(idUsuario);
+        return true;
+    }
+
+    private void acumular(Lancamento lancamento, BigDecimal sinal) {
+        if (!contabilizavel(lancamento)) {
+            return;
+        }
+        BigDecimal valor = lancamento.getValor().multiply(sinal);
+        BigDecimal receitas = lancamento.getTipo() == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+        BigDecimal despesas = lancamento.getTipo() == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+        acumular(lancamento.getUsuario().getId(), receitas, despesas);
+    }
+
+    /**
+     * Sem linha de saldo, trava o contador do usuário e tenta de novo antes de inserir; se a transação
+     * já segurava o contador, nenhuma outra pode ter criado a linha depois do primeiro update.
+     */
+    private void acumular(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+        if (repository.acumular(idUsuario, receitas, despesas) > 0) {
+            return;
+        }
+        if (sincronizacaoService.travar(idUsuario) && repository.acumular(idUsuario, receitas, despesas) > 0) {
+            return;
+        }
+        repository.save(novoSaldo(idUsuario).toBuilder()
+                .receitas(receitas)
+                .despesas(despesas)
+                .build());
+    }
+
+    private static boolean contabilizavel(Lancamento lancamento) {
+        return lancamento.getUsuario() != null && lancamento.getValor() != null && lancamento.getTipo() != null;
+    }
+
+    private static SaldoUsuario novoSaldo(Long idUsuario) {
+        return SaldoUsuario.builder()
+                .idUsuario(idUsuario)
+                .receitas(BigDecimal.ZERO)
+                .despesas(BigDecimal.ZERO)
+                .build();
+    }
+}
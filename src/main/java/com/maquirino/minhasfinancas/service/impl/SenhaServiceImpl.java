@@ -0,0 +1,104 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.service.SenhaService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hash de senhas com BCrypt executado em um pool próprio e limitado, para que picos de autenticação
+ * não ocupem as threads do servlet. Senhas legadas em texto puro continuam aceitas até o próximo login.
+ */
+@Service
+public class SenhaServiceImpl implements SenhaService {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2(a|y|b)?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    @Value("${minhasfinancas.senha.custo:10}")
+    private int custo;
+
+    @Value("${minhasfinancas.senha.threads:0}")
+    private int threads;
+
+    @Value("${minhasfinancas.senha.fila:100}")
+    private int fila;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    public SenhaServiceImpl() {
+    }
+
+    public SenhaServiceImpl(int custo, int threads, int fila) {
+        this.custo = custo;
+        this.threads = threads;
+        this.fila = fila;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        int quantidade = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequencia = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "senha-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        encoder = new BCryptPasswordEncoder(custo);
+        executor = new ThreadPoolExecutor(quantidade, quantidade, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), fabrica, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public String codificar(String senha) {
+        return encoder.encode(senha);
+    }
+
+    @Override
+    public boolean confere(String senha, String senhaArmazenada) {
+        if (senha == null || senhaArmazenada == null) {
+            return false;
+        }
+        if (legada(senhaArmazenada)) {
+            return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8),
+                    senhaArmazenada.getBytes(StandardCharsets.UTF_8));
+        }
+        return encoder.matches(senha, senhaArmazenada);
+    }
+
+    @Override
+    public boolean precisaAtualizar(String senhaArmazenada) {
+        return legada(senhaArmazenada) || encoder.upgradeEncoding(senhaArmazenada);
+    }
+
+    private static boolean legada(String senhaArmazenada) {
+        return !BCRYPT.matcher(senhaArmazenada).matches();
+    }
+}
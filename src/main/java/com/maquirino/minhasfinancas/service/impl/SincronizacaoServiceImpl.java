@@ -0,0 +1,176 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.repository.AlteracaoUsuarioRepository;
+import com.maquirino.minhasfinancas.model.repository.LancamentoExcluidoRepository;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marca cada escrita de lançamento com o próximo valor do contador do usuário. O incremento trava a
+ * linha do contador até o commit, então quem lê o contador já enxerga todas as escritas com valor
+ * menor ou igual a ele, e o feed de alterações não perde linhas confirmadas fora de ordem. O contador
+ * nasce com o usuário; as exclusões ficam disponíveis ao feed durante {@code minhasfinancas.sincronizacao.retencao}.
+ */
+@Slf4j
+@Service
+public class SincronizacaoServiceImpl implements SincronizacaoService {
+
+    @Autowired
+    AlteracaoUsuarioRepository repository;
+
+    @Autowired
+    LancamentoExcluidoRepository excluidoRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${minhasfinancas.sincronizacao.retencao:P30D}")
+    Duration retencao = Duration.ofDays(30);
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void iniciar(Long idUsuario) {
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(idUsuario).alteracao(0L).expurgado(0L).build());
+    }
+
+    /**
+     * Trava o contador do usuário até o commit sem incrementá-lo e devolve {@code false} quando a transação
+     * já o segurava. Usuários anteriores ao contador não têm a linha: a transação trava o usuário para que
+     * duas delas não tentem criá-la ao mesmo tempo, e a segunda encontra a linha criada pela primeira.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean travar(Long idUsuario) {
+        if (!travados().add(idUsuario)) {
+            return false;
+        }
+        if (repository.travar(idUsuario).isEmpty()) {
+            entityManager.find(Usuario.class, idUsuario, LockModeType.PESSIMISTIC_WRITE);
+            if (repository.travar(idUsuario).isEmpty()) {
+                iniciar(idUsuario);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Incrementa o contador sem ler o novo valor, para escritas que já o gravaram nas linhas alteradas.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incrementar(Long idUsuario) {
+        if (repository.incrementar(idUsuario) == 0) {
+            travar(idUsuario);
+            repository.incrementar(idUsuario);
+        }
+        travados().add(idUsuario);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long registrar(Long idUsuario) {
+        incrementar(idUsuario);
+        return repository.obterAlteracao(idUsuario).orElseThrow();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Lancamento lancamento) {
+        if (lancamento.getUsuario() != null) {
+            lancamento.setAlteracao(registrar(lancamento.getUsuario().getId()));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(List<Lancamento> lancamentos) {
+        Map<Long, Long> alteracoes = new HashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            if (lancamento.getUsuario() != null) {
+                lancamento.setAlteracao(alteracoes.computeIfAbsent(lancamento.getUsuario().getId(), this::registrar));
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarExclusao(Lancamento lancamento) {
+        Long idUsuario = lancamento.getUsuario().getId();
+        entityManager.persist(LancamentoExcluido.builder()
+                .idLancamento(lancamento.getId())
+                .idUsuario(idUsuario)
+                .alteracao(registrar(idUsuario))
+                .dataExclusao(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public Optional<Long> obterAlteracao(Long idUsuario) {
+        return repository.obterAlteracao(idUsuario);
+    }
+
+    @Override
+    public Optional<AlteracaoUsuario> obterContador(Long idUsuario) {
+        return repository.findById(idUsuario);
+    }
+
+    /**
+     * Usuários cujo contador a transação atual já travou; fora de uma transação gerenciada não há o que lembrar.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Long> travados() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        Set<Long> travados = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (travados == null) {
+            Set<Long> novos = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SincronizacaoServiceImpl.this);
+                }
+            });
+            travados = novos;
+        }
+        return travados;
+    }
+
+    /**
+     * Remove as exclusões que passaram da retenção, guardando antes em {@code expurgado} a maior alteração
+     * removida de cada usuário para que o feed recuse os cursores que deixariam de vê-las.
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${minhasfinancas.sincronizacao.limpeza.cron:0 15 4 * * *}")
+    public void limpar() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        repository.expurgarAte(limite);
+        int excluidos = excluidoRepository.excluirAte(limite);
+        log.info("{} lançamentos excluídos saíram da retenção do feed de alterações", excluidos);
+    }
+}
@@ -0,0 +1,138 @@
+package com.maquirino.minhasfinancas.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.service.TokenService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tokens JWT assinados com HMAC-SHA256. A validação não consulta o banco nem guarda sessão, então
+ * qualquer instância com o mesmo segredo aceita o token. Sem {@code minhasfinancas.token.segredo} a
+ * aplicação não sobe, exceto no perfil de teste, que usa um segredo aleatório.
+ */
+@Slf4j
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final String PERFIL_TESTE = "test";
+    private static final int TAMANHO_MINIMO_SEGREDO = 32;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String CABECALHO = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${minhasfinancas.token.segredo:}")
+    private String segredo;
+
+    @Value("${minhasfinancas.token.validade:PT12H}")
+    private Duration validade;
+
+    private Clock relogio = Clock.systemUTC();
+    private SecretKeySpec chave;
+
+    public TokenServiceImpl() {
+    }
+
+    public TokenServiceImpl(String segredo, Duration validade, Clock relogio) {
+        this.segredo = segredo;
+        this.validade = validade;
+        this.relogio = relogio;
+        iniciar();
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        byte[] bytes;
+        if (segredo == null || segredo.isBlank()) {
+            if (environment == null || !environment.acceptsProfiles(Profiles.of(PERFIL_TESTE))) {
+                throw new IllegalStateException("minhasfinancas.token.segredo não configurado");
+            }
+            log.warn("minhasfinancas.token.segredo não configurado, usando segredo aleatório no perfil de teste");
+            bytes = new byte[TAMANHO_MINIMO_SEGREDO];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = segredo.getBytes(StandardCharsets.UTF_8);
+        }
+        if (bytes.length < TAMANHO_MINIMO_SEGREDO) {
+            throw new IllegalStateException("minhasfinancas.token.segredo deve ter ao menos " + TAMANHO_MINIMO_SEGREDO + " bytes");
+        }
+        chave = new SecretKeySpec(bytes, ALGORITMO);
+    }
+
+    @Override
+    public String gerar(Usuario usuario) {
+        long agora = relogio.instant().getEpochSecond();
+        ObjectNode corpo = MAPPER.createObjectNode()
+                .put("sub", String.valueOf(usuario.getId()))
+                .put("iat", agora)
+                .put("exp", agora + validade.getSeconds());
+        String conteudo = CABECALHO + "." + ENCODER.encodeToString(corpo.toString().getBytes(StandardCharsets.UTF_8));
+        return conteudo + "." + ENCODER.encodeToString(assinar(conteudo));
+    }
+
+    @Override
+    public Long validar(String token) {
+        if (token == null) {
+            throw new ErroAutenticacao("Token inválido");
+        }
+        int fimCabecalho = token.indexOf('.');
+        int fimCorpo = token.lastIndexOf('.');
+        if (fimCabecalho < 0 || fimCorpo <= fimCabecalho || !token.substring(0, fimCabecalho).equals(CABECALHO)) {
+            throw new ErroAutenticacao("Token inválido");
+        }
+
+        JsonNode corpo;
+        try {
+            byte[] assinatura = DECODER.decode(token.substring(fimCorpo + 1));
+            if (!MessageDigest.isEqual(assinar(token.substring(0, fimCorpo)), assinatura)) {
+                throw new ErroAutenticacao("Token inválido");
+            }
+            corpo = MAPPER.readTree(DECODER.decode(token.substring(fimCabecalho + 1, fimCorpo)));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ErroAutenticacao("Token inválido");
+        }
+
+        if (!corpo.path("exp").canConvertToLong() || corpo.path("exp").asLong() <= relogio.instant().getEpochSecond()) {
+            throw new ErroAutenticacao("Token expirado");
+        }
+        try {
+            return Long.valueOf(corpo.path("sub").asText());
+        } catch (NumberFormatException e) {
+            throw new ErroAutenticacao("Token inválido");
+        }
+    }
+
+    private byte[] assinar(String conteudo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,12 +3,18 @@ package com.maquirino.minhasfinancas.service.impl;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
 import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.SenhaService;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
 import com.maquirino.minhasfinancas.service.UsuarioService;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
@@ -16,19 +22,49 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private UsuarioRepository repository;
 
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private SincronizacaoService sincronizacaoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Override
-    public Usuario autenticar(String email, String senha) throws ErroAutenticacao {
-        Optional<Usuario> optionalUsuario = repository.findByEmail(email);
+    public CompletableFuture<Usuario> autenticar(String email, String senha) {
+        Usuario usuario;
+        try {
+            usuario = validaUsuario(repository.findByEmail(email));
+        } catch (ErroAutenticacao e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-        return validaUsuarioESenha(senha, optionalUsuario);
+        return senhaService.executar(() -> validaSenha(senha, usuario));
     }
 
 
+    /**
+     * O hash da senha roda antes da transação, para não segurar uma conexão do pool enquanto o BCrypt
+     * trabalha.
+     */
     @Override
-    @Transactional
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
-        return repository.save(usuario);
+        if (usuario.getSenha() == null || usuario.getSenha().isBlank()) {
+            throw new RegraNegocioException("Informe a senha.");
+        }
+        String senha;
+        try {
+            senha = senhaService.executar(() -> senhaService.codificar(usuario.getSenha())).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Usuario salvo = repository.save(usuario.toBuilder().senha(senha).build());
+            sincronizacaoService.iniciar(salvo.getId());
+            return salvo;
+        });
     }
 
     @Override
@@ -40,23 +76,35 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
-    public Usuario obterPorId(Long id) {
-        Optional<Usuario> optionalUsuario = repository.findById(id);
-        return validaUsuario(optionalUsuario);
+    public DadosUsuario obterPorId(Long id) {
+        return validaUsuario(repository.obterDados(id));
+    }
+
+    @Override
+    public Usuario obterReferencia(Long id) {
+        validaUsuario(repository.obterDados(id));
+        return repository.getOne(id);
     }
 
-    private Usuario validaUsuario(Optional<Usuario> optionalUsuario) {
+    @Override
+    public Usuario obterReferenciaAutenticada(Long id) {
+        return repository.getOne(id);
+    }
+
+    private <T> T validaUsuario(Optional<T> optionalUsuario) {
         if (optionalUsuario.isEmpty()) {
             throw new ErroAutenticacao("Usuário não encontrado");
         }
         return optionalUsuario.get();
     }
 
-    private Usuario validaUsuarioESenha(String senha, Optional<Usuario> optionalUsuario) {
-        Usuario usuario = validaUsuario(optionalUsuario);
-        if (!usuario.getSenha().equals(senha)) {
+    private Usuario validaSenha(String senha, Usuario usuario) {
+        if (!senhaService.confere(senha, usuario.getSenha())) {
             throw new ErroAutenticacao("Senha incorreta");
         }
+        if (senhaService.precisaAtualizar(usuario.getSenha())) {
+            return repository.save(usuario.toBuilder().senha(senhaService.codificar(senha)).build());
+        }
         return usuario;
     }
 }
@@ -0,0 +1,20 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.util.function.Function;
+
+public enum FormatoExtrato {
+
+    CSV(LeitorExtratoCsv::new),
+    OFX(LeitorExtratoOfx::new);
+
+    private final Function<BufferedReader, LeitorExtrato> fabrica;
+
+    FormatoExtrato(Function<BufferedReader, LeitorExtrato> fabrica) {
+        this.fabrica = fabrica;
+    }
+
+    public LeitorExtrato leitor(BufferedReader reader) {
+        return fabrica.apply(reader);
+    }
+}
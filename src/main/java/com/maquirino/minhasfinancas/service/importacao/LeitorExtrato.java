@@ -0,0 +1,13 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import java.io.IOException;
+
+public interface LeitorExtrato {
+
+    RegistroExtrato proximo() throws IOException;
+
+    /**
+     * Linhas físicas do arquivo consumidas até agora, incluindo cabeçalho e linhas em branco.
+     */
+    int linhasLidas();
+}
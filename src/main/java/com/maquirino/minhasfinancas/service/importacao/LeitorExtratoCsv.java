@@ -0,0 +1,115 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class LeitorExtratoCsv implements LeitorExtrato {
+
+    private static final char SEPARADOR = ';';
+    private static final char ASPAS = '"';
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader reader;
+    private int linha;
+
+    public LeitorExtratoCsv(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int linhasLidas() {
+        return linha;
+    }
+
+    @Override
+    public RegistroExtrato proximo() throws IOException {
+        String texto;
+        while ((texto = reader.readLine()) != null) {
+            linha++;
+            if (texto.isBlank() || (linha == 1 && texto.toLowerCase(Locale.ROOT).startsWith("data"))) {
+                continue;
+            }
+            return converter(texto);
+        }
+        return null;
+    }
+
+    private RegistroExtrato converter(String texto) {
+        List<String> campos = separar(texto);
+        if (campos.size() < 3) {
+            return RegistroExtrato.invalido(linha, "Linha deve conter data;descricao;valor[;tipo].");
+        }
+
+        LocalDate data;
+        try {
+            data = campos.get(0).contains("/") ? LocalDate.parse(campos.get(0), DATA_BR) : LocalDate.parse(campos.get(0));
+        } catch (DateTimeParseException e) {
+            return RegistroExtrato.invalido(linha, "Data informada não é válida: " + campos.get(0));
+        }
+
+        BigDecimal valor;
+        try {
+            valor = valor(campos.get(2));
+        } catch (NumberFormatException e) {
+            return RegistroExtrato.invalido(linha, "Valor informado não é válido: " + campos.get(2));
+        }
+
+        TipoLancamento tipo = valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+        if (campos.size() > 3 && !campos.get(3).isBlank()) {
+            try {
+                tipo = TipoLancamento.valueOf(campos.get(3).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return RegistroExtrato.invalido(linha, "Tipo informado não é válido: " + campos.get(3));
+            }
+        }
+
+        return RegistroExtrato.valido(linha, Lancamento.builder()
+                .descricao(campos.get(1).trim())
+                .mes(data.getMonthValue())
+                .ano(data.getYear())
+                .valor(valor.abs())
+                .tipo(tipo)
+                .build());
+    }
+
+    private static BigDecimal valor(String texto) {
+        String valor = texto.trim();
+        if (valor.contains(",")) {
+            valor = valor.replace(".", "").replace(',', '.');
+        }
+        return new BigDecimal(valor);
+    }
+
+    private static List<String> separar(String texto) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == ASPAS) {
+                if (entreAspas && i + 1 < texto.length() && texto.charAt(i + 1) == ASPAS) {
+                    campo.append(ASPAS);
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == SEPARADOR && !entreAspas) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
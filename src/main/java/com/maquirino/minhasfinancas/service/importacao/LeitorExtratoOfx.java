@@ -0,0 +1,101 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class LeitorExtratoOfx implements LeitorExtrato {
+
+    private static final String TRANSACAO = "STMTTRN";
+
+    private final BufferedReader reader;
+    private final Deque<String> pendentes = new ArrayDeque<>();
+    private int linha;
+    private int linhaTransacao;
+    private Map<String, String> transacao;
+
+    public LeitorExtratoOfx(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int linhasLidas() {
+        return linha;
+    }
+
+    @Override
+    public RegistroExtrato proximo() throws IOException {
+        String token;
+        while ((token = proximoToken()) != null) {
+            int fim = token.indexOf('>');
+            if (fim < 0) {
+                continue;
+            }
+            String tag = token.substring(0, fim).trim().toUpperCase(Locale.ROOT);
+            String valor = token.substring(fim + 1).trim();
+
+            if (TRANSACAO.equals(tag)) {
+                transacao = new HashMap<>();
+                linhaTransacao = linha;
+            } else if (("/" + TRANSACAO).equals(tag) && transacao != null) {
+                RegistroExtrato registro = converter(transacao);
+                transacao = null;
+                return registro;
+            } else if (transacao != null && !tag.startsWith("/")) {
+                transacao.put(tag, valor);
+            }
+        }
+        return null;
+    }
+
+    private String proximoToken() throws IOException {
+        while (pendentes.isEmpty()) {
+            String texto = reader.readLine();
+            if (texto == null) {
+                return null;
+            }
+            linha++;
+            for (String token : texto.split("<")) {
+                if (!token.isBlank()) {
+                    pendentes.add(token);
+                }
+            }
+        }
+        return pendentes.poll();
+    }
+
+    private RegistroExtrato converter(Map<String, String> campos) {
+        String data = campos.getOrDefault("DTPOSTED", "");
+        String valorTexto = campos.getOrDefault("TRNAMT", "");
+        String descricao = campos.getOrDefault("MEMO", campos.get("NAME"));
+
+        if (data.length() < 8) {
+            return RegistroExtrato.invalido(linhaTransacao, "Data informada não é válida: " + data);
+        }
+        BigDecimal valor;
+        try {
+            valor = new BigDecimal(valorTexto.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return RegistroExtrato.invalido(linhaTransacao, "Valor informado não é válido: " + valorTexto);
+        }
+
+        try {
+            return RegistroExtrato.valido(linhaTransacao, Lancamento.builder()
+                    .descricao(descricao)
+                    .ano(Integer.valueOf(data.substring(0, 4)))
+                    .mes(Integer.valueOf(data.substring(4, 6)))
+                    .valor(valor.abs())
+                    .tipo(valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                    .build());
+        } catch (NumberFormatException e) {
+            return RegistroExtrato.invalido(linhaTransacao, "Data informada não é válida: " + data);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import lombok.Value;
+
+@Value
+public class RegistroExtrato {
+
+    int linha;
+    Lancamento lancamento;
+    String erro;
+
+    public static RegistroExtrato valido(int linha, Lancamento lancamento) {
+        return new RegistroExtrato(linha, lancamento, null);
+    }
+
+    public static RegistroExtrato invalido(int linha, String erro) {
+        return new RegistroExtrato(linha, null, erro);
+    }
+}
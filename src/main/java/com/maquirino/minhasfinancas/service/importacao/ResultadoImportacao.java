@@ -0,0 +1,27 @@
+package com.maquirino.minhasfinancas.service.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.Value;
+
+@Data
+public class ResultadoImportacao {
+
+    private long linhasLidas;
+    private long importados;
+    private long totalErros;
+    private List<ErroImportacao> erros = new ArrayList<>();
+
+    /**
+     * Motivo da interrupção; nulo quando o extrato foi importado até o fim.
+     */
+    private String falha;
+
+    @Value
+    public static class ErroImportacao {
+
+        int linha;
+        String mensagem;
+    }
+}
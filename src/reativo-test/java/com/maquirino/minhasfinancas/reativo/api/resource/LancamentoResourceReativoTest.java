@@ -0,0 +1,303 @@
+package com.maquirino.minhasfinancas.reativo.api.resource;
+
+import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.api.dto.LoginDTO;
+import com.maquirino.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
+import com.maquirino.minhasfinancas.api.dto.UsuarioDTO;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import io.r2dbc.spi.ConnectionFactory;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.Entity;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.schema.TargetType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reativo?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.username=sa"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+public class LancamentoResourceReativoTest {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private UsuarioAutenticadoDTO usuario;
+
+    @TestConfiguration
+    static class EsquemaConfig {
+
+        /**
+         * Gera o esquema H2 a partir do mapeamento JPA, o mesmo que os testes da API servlet usam.
+         */
+        @Bean
+        public ConnectionFactoryInitializer esquema(ConnectionFactory connectionFactory) throws IOException {
+            Path script = Files.createTempFile("reativo-esquema", ".sql");
+            StandardServiceRegistry registro = new StandardServiceRegistryBuilder()
+                    .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                    .applySetting(AvailableSettings.HBM2DDL_CREATE_NAMESPACES, true)
+                    .applySetting("hibernate.temp.use_jdbc_metadata_defaults", false)
+                    .build();
+            try {
+                MetadataSources fontes = new MetadataSources(registro);
+                ClassPathScanningCandidateComponentProvider entidades = new ClassPathScanningCandidateComponentProvider(false);
+                entidades.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+                entidades.findCandidateComponents(Lancamento.class.getPackageName())
+                        .forEach(entidade -> fontes.addAnnotatedClassName(entidade.getBeanClassName()));
+                new SchemaExport()
+                        .setFormat(false)
+                        .setDelimiter(";")
+                        .setOutputFile(script.toString())
+                        .createOnly(EnumSet.of(TargetType.SCRIPT), fontes.buildMetadata());
+            } finally {
+                StandardServiceRegistryBuilder.destroy(registro);
+            }
+
+            ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+            initializer.setConnectionFactory(connectionFactory);
+            initializer.setDatabasePopulator(new ResourceDatabasePopulator(new FileSystemResource(script)));
+            return initializer;
+        }
+    }
+
+    @BeforeEach
+    public void criarUsuario() {
+        usuario = cadastrarEAutenticar();
+    }
+
+    @Test
+    public void deveSalvarEBuscarLancamentosPorPagina() {
+        for (int mes = 1; mes <= 3; mes++) {
+            salvar(lancamento(mes, "Mercado " + mes, TipoLancamento.DESPESA));
+        }
+
+        PaginaLancamento primeira = client.get()
+                .uri("/api/lancamentos?usuario={usuario}&descricao=mercado&tamanho=2", usuario.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaginaLancamento.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(2, primeira.getLancamentos().size());
+        assertNotNull(primeira.getProximoCursor());
+
+        PaginaLancamento segunda = client.get()
+                .uri("/api/lancamentos?usuario={usuario}&descricao=mercado&tamanho=2&cursor={cursor}",
+                        usuario.getId(), primeira.getProximoCursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaginaLancamento.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(1, segunda.getLancamentos().size());
+        assertEquals(3, segunda.getLancamentos().get(0).getMes());
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    public void deveManterSaldoEResumoAoAlterarLancamentos() {
+        DadosLancamento receita = salvar(lancamento(1, "Salario", TipoLancamento.RECEITA).toBuilder().valor(BigDecimal.valueOf(300)).build());
+        DadosLancamento despesa = salvar(lancamento(1, "Aluguel", TipoLancamento.DESPESA).toBuilder().valor(BigDecimal.valueOf(100)).build());
+
+        client.put().uri("/api/lancamentos/{id}/atualizar/status", receita.getId())
+                .bodyValue(Map.of("status", "efetivado"))
+                .exchange()
+                .expectStatus().isOk();
+        client.delete().uri("/api/lancamentos/deletar/{id}", despesa.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        BigDecimal saldo = client.get().uri("/api/usuarios/{id}/saldo", usuario.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BigDecimal.class)
+                .returnResult().getResponseBody();
+        assertEquals(0, BigDecimal.valueOf(300).compareTo(saldo));
+
+        client.get().uri("/api/usuarios/{id}/resumo", usuario.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].status").isEqualTo("EFETIVADO")
+                .jsonPath("$[0].quantidade").isEqualTo(1);
+    }
+
+    @Test
+    public void deveRetornarConflitoAoAtualizarComVersaoAntiga() {
+        DadosLancamento salvo = salvar(lancamento(1, "Internet", TipoLancamento.DESPESA));
+
+        client.put().uri("/api/lancamentos/atualizar/{id}", salvo.getId())
+                .bodyValue(lancamento(2, "Internet", TipoLancamento.DESPESA).toBuilder().versao(salvo.getVersao()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("mes").isEqualTo(2)
+                .jsonPath("versao").isEqualTo(salvo.getVersao() + 1);
+
+        client.put().uri("/api/lancamentos/atualizar/{id}", salvo.getId())
+                .bodyValue(lancamento(3, "Internet", TipoLancamento.DESPESA).toBuilder().versao(salvo.getVersao()).build())
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void deveRegistrarEventosNaOutbox() {
+        DadosLancamento salvo = salvar(lancamento(1, "Academia", TipoLancamento.DESPESA));
+        client.delete().uri("/api/lancamentos/deletar/{id}", salvo.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<String> tipos = databaseClient.sql("select tipo from financas.evento_lancamento where id_lancamento = :id order by id")
+                .bind("id", salvo.getId())
+                .map((row, metadata) -> row.get("tipo", String.class))
+                .all()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("CRIADO", "EXCLUIDO"), tipos);
+    }
+
+    @Test
+    public void deveExportarLancamentosEmNdjson() {
+        salvar(lancamento(1, "Luz", TipoLancamento.DESPESA));
+        salvar(lancamento(2, "Agua", TipoLancamento.DESPESA));
+
+        List<DadosLancamento> exportados = client.get()
+                .uri("/api/lancamentos/exportar?usuario={usuario}", usuario.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(DadosLancamento.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(2, exportados.size());
+        assertEquals("Luz", exportados.get(0).getDescricao());
+    }
+
+    @Test
+    public void deveNegarLancamentoDeOutroUsuarioComToken() {
+        DadosLancamento salvo = salvar(lancamento(1, "Cinema", TipoLancamento.DESPESA));
+        UsuarioAutenticadoDTO outro = cadastrarEAutenticar();
+
+        client.get().uri("/api/lancamentos/{id}", salvo.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + outro.getToken())
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client.get().uri("/api/lancamentos/{id}", salvo.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + usuario.getToken())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("descricao").isEqualTo("Cinema");
+    }
+
+    @Test
+    public void deveRetornarErroParaTokenInvalidoEUsuarioInexistente() {
+        client.get().uri("/api/lancamentos?usuario={usuario}", usuario.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer invalido")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+
+        client.get().uri("/api/lancamentos?usuario=-1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Usuário não encontrado");
+
+        client.get().uri("/api/usuarios/-1/saldo")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void deveNaoAutenticarComSenhaIncorreta() {
+        client.post().uri("/api/usuarios/autenticar")
+                .bodyValue(LoginDTO.builder().email(usuario.getEmail()).senha("errada").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Senha incorreta");
+    }
+
+    private UsuarioAutenticadoDTO cadastrarEAutenticar() {
+        String email = "reativo" + SEQUENCIA.incrementAndGet() + "@email.com";
+        client.post().uri("/api/usuarios/salvar")
+                .bodyValue(UsuarioDTO.builder().nome("Reativo").email(email).senha("123").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Usuario.class);
+
+        return client.post().uri("/api/usuarios/autenticar")
+                .bodyValue(LoginDTO.builder().email(email).senha("123").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UsuarioAutenticadoDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private DadosLancamento salvar(LancamentoDTO lancamento) {
+        return client.post().uri("/api/lancamentos/salvar")
+                .bodyValue(lancamento)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(DadosLancamento.class)
+                .returnResult().getResponseBody();
+    }
+
+    private LancamentoDTO lancamento(int mes, String descricao, TipoLancamento tipo) {
+        return LancamentoDTO.builder()
+                .descricao(descricao)
+                .mes(mes)
+                .ano(2021)
+                .valor(BigDecimal.TEN)
+                .tipo(tipo)
+                .usuario(usuario.getId())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.maquirino.minhasfinancas.reativo;
+
+import com.maquirino.minhasfinancas.service.impl.SenhaServiceImpl;
+import com.maquirino.minhasfinancas.service.impl.TokenServiceImpl;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Variante reativa (WebFlux + R2DBC) da API de lançamentos e usuários, com os mesmos caminhos e
+ * respostas de {@code LancamentoResource} e {@code UsuarioResource}. Compartilha o modelo, as
+ * validações e os serviços de senha e token com a aplicação servlet, mas só entra no build com o
+ * perfil Maven {@code reativo}, que traz o WebFlux e o R2DBC e faz dela a classe principal do jar.
+ * A conexão R2DBC fica em {@code application-reativo.properties}.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class})
+@Import({SenhaServiceImpl.class, TokenServiceImpl.class})
+public class MinhasfinancasReativoApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(MinhasfinancasReativoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reativo")
+                .run(args);
+    }
+}
@@ -0,0 +1,235 @@
+package com.maquirino.minhasfinancas.reativo.api.resource;
+
+import com.maquirino.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.api.resource.LancamentoResource;
+import com.maquirino.minhasfinancas.exception.AcessoNegadoException;
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.reativo.config.AutenticacaoTokenWebFilter;
+import com.maquirino.minhasfinancas.reativo.service.LancamentoServiceReativo;
+import com.maquirino.minhasfinancas.reativo.service.UsuarioServiceReativo;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/lancamentos")
+public class LancamentoResourceReativo {
+
+    private static final String FORMATO_NDJSON = "ndjson";
+    private static final String FORMATO_CSV = "csv";
+
+    @Autowired
+    private LancamentoServiceReativo lancamentoService;
+
+    @Autowired
+    private UsuarioServiceReativo usuarioService;
+
+    @PostMapping("/salvar")
+    public Mono<ResponseEntity> salvar(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @RequestBody LancamentoDTO lancamentoDTO) {
+        return idUsuario(lancamentoDTO.getUsuario(), autenticado)
+                .flatMap(idUsuario -> lancamentoService.salvar(converter(lancamentoDTO, idUsuario)))
+                .<ResponseEntity>map(dados -> ResponseEntity.status(HttpStatus.CREATED).body(dados))
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @PutMapping("/atualizar/{id}")
+    public Mono<ResponseEntity> atualizar(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @PathVariable("id") Long idLancamento,
+            @RequestBody LancamentoDTO lancamentoDTO) {
+        return lancamentoService.obterDados(idLancamento)
+                .flatMap(entidade -> validarDono(entidade.getUsuario(), autenticado)
+                        .then(idUsuario(lancamentoDTO.getUsuario(), autenticado))
+                        .map(idUsuario -> converter(lancamentoDTO, idUsuario).toBuilder()
+                                .id(entidade.getId())
+                                .status(lancamentoDTO.getStatus() == null ? entidade.getStatus() : lancamentoDTO.getStatus())
+                                .versao(lancamentoDTO.getVersao() == null ? entidade.getVersao() : lancamentoDTO.getVersao())
+                                .build()))
+                .flatMap(lancamentoService::atualizar)
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @PutMapping("{id}/atualizar/status")
+    public Mono<ResponseEntity> atualizarStatus(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @PathVariable("id") Long idLancamento,
+            @RequestBody AtualizaStatusDTO atualizaStatusDTO) {
+        StatusLancamento statusSelecionado;
+        try {
+            statusSelecionado = status(atualizaStatusDTO.getStatus());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body("Não foi possível atualizar o status do Lançamento, envie um status válido."));
+        }
+
+        Mono<Void> dono = autenticado == null
+                ? Mono.empty()
+                : lancamentoService.obterDados(idLancamento).flatMap(dados -> validarDono(dados.getUsuario(), autenticado));
+        return dono
+                .then(lancamentoService.atualizarStatus(idLancamento, statusSelecionado, atualizaStatusDTO.getVersao()))
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @DeleteMapping("/deletar/{id}")
+    public Mono<ResponseEntity> deletar(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @PathVariable("id") Long idLancamento) {
+        return lancamentoService.obterDados(idLancamento)
+                .flatMap(lancamento -> validarDono(lancamento.getUsuario(), autenticado))
+                .then(lancamentoService.deletar(idLancamento))
+                .then(Mono.<ResponseEntity>fromSupplier(() -> ResponseEntity.noContent().build()))
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity> buscar(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        return idUsuario(idUsuario, autenticado)
+                .map(id -> Lancamento.builder()
+                        .descricao(descricao)
+                        .mes(mes)
+                        .ano(ano)
+                        .usuario(Usuario.builder().id(id).build())
+                        .build())
+                .flatMap(lancamentoFiltro -> lancamentoService.buscar(lancamentoFiltro, cursor, tamanho))
+                .<ResponseEntity>map(pagina -> ResponseEntity.ok().body(pagina))
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity> obterPorId(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @PathVariable("id") Long idLancamento) {
+        return lancamentoService.obterDados(idLancamento)
+                .flatMap(dados -> validarDono(dados.getUsuario(), autenticado).thenReturn(dados))
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(RegraNegocioException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())))
+                .onErrorResume(LancamentoResourceReativo::erro);
+    }
+
+    @GetMapping("/exportar")
+    public Mono<ResponseEntity<Flux<?>>> exportar(
+            @RequestAttribute(name = AutenticacaoTokenWebFilter.USUARIO_AUTENTICADO, required = false) Long autenticado,
+            @RequestParam(value = "usuario", required = false) Long idInformado,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+        boolean csv = FORMATO_CSV.equalsIgnoreCase(formato);
+        if (!csv && !FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            return Mono.just(erroExportacao(HttpStatus.BAD_REQUEST, "Formato de exportação inválido, utilize ndjson ou csv."));
+        }
+        return idUsuario(idInformado, autenticado)
+                .map(idUsuario -> {
+                    Flux<DadosLancamento> lancamentos = lancamentoService.exportar(idUsuario);
+                    return ResponseEntity.ok()
+                            .contentType(csv
+                                    ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                                    : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos." + formato.toLowerCase(Locale.ROOT))
+                            .<Flux<?>>body(csv ? csv(lancamentos) : lancamentos);
+                })
+                .onErrorResume(ErroAutenticacao.class, e -> Mono.just(erroExportacao(HttpStatus.BAD_REQUEST, e.getMessage())))
+                .onErrorResume(AcessoNegadoException.class, e -> Mono.just(erroExportacao(HttpStatus.FORBIDDEN, e.getMessage())));
+    }
+
+    private static ResponseEntity<Flux<?>> erroExportacao(HttpStatus status, String mensagem) {
+        return ResponseEntity.status(status)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(Flux.just(mensagem));
+    }
+
+    private static Flux<String> csv(Flux<DadosLancamento> lancamentos) {
+        return Flux.concat(Flux.just("id;descricao;mes;ano;valor;tipo;status\n"), lancamentos
+                .map(lancamento -> lancamento.getId() + ";"
+                        + LancamentoResource.campoCsv(lancamento.getDescricao()) + ";"
+                        + lancamento.getMes() + ";"
+                        + lancamento.getAno() + ";"
+                        + lancamento.getValor().toPlainString() + ";"
+                        + lancamento.getTipo() + ";"
+                        + lancamento.getStatus() + "\n"));
+    }
+
+    private static StatusLancamento status(String status) {
+        if (status == null) {
+            throw new IllegalArgumentException();
+        }
+        return StatusLancamento.valueOf(status.toUpperCase(Locale.ROOT));
+    }
+
+    private static Mono<ResponseEntity> erro(Throwable erro) {
+        if (erro instanceof ErroAutenticacao || erro instanceof RegraNegocioException) {
+            return Mono.just(ResponseEntity.badRequest().body(erro.getMessage()));
+        }
+        if (erro instanceof AcessoNegadoException) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).body(erro.getMessage()));
+        }
+        if (erro instanceof OptimisticLockingFailureException) {
+            return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Lançamento foi alterado por outra operação, por favor recarregue e tente novamente."));
+        }
+        return Mono.error(erro);
+    }
+
+    private Mono<Long> idUsuario(Long idInformado, Long autenticado) {
+        if (autenticado == null) {
+            if (idInformado == null) {
+                return Mono.error(new ErroAutenticacao("Informe o usuário dos lançamentos."));
+            }
+            return usuarioService.obterPorId(idInformado).map(Usuario::getId);
+        }
+        if (idInformado != null && !idInformado.equals(autenticado)) {
+            return Mono.error(new AcessoNegadoException("Usuário informado não corresponde ao usuário autenticado."));
+        }
+        return Mono.just(autenticado);
+    }
+
+    private static Mono<Void> validarDono(Long idUsuario, Long autenticado) {
+        if (autenticado != null && !autenticado.equals(idUsuario)) {
+            return Mono.error(new AcessoNegadoException("Lançamento não pertence ao usuário autenticado."));
+        }
+        return Mono.empty();
+    }
+
+    private static Lancamento converter(LancamentoDTO lancamentoDTO, Long idUsuario) {
+        return Lancamento.builder()
+                .usuario(Usuario.builder().id(idUsuario).build())
+                .descricao(lancamentoDTO.getDescricao())
+                .status(lancamentoDTO.getStatus())
+                .valor(lancamentoDTO.getValor())
+                .tipo(lancamentoDTO.getTipo())
+                .mes(lancamentoDTO.getMes())
+                .ano(lancamentoDTO.getAno())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.maquirino.minhasfinancas.reativo.api.resource;
+
+import com.maquirino.minhasfinancas.api.dto.LoginDTO;
+import com.maquirino.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
+import com.maquirino.minhasfinancas.api.dto.UsuarioDTO;
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.reativo.service.LancamentoServiceReativo;
+import com.maquirino.minhasfinancas.reativo.service.UsuarioServiceReativo;
+import com.maquirino.minhasfinancas.service.TokenService;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/usuarios")
+public class UsuarioResourceReativo {
+
+    @Autowired
+    private UsuarioServiceReativo usuarioService;
+
+    @Autowired
+    private LancamentoServiceReativo lancamentoService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @PostMapping("autenticar")
+    public Mono<ResponseEntity> autenticar(@RequestBody LoginDTO loginDTO) {
+        return usuarioService.autenticar(loginDTO.getEmail(), loginDTO.getSenha())
+                .<ResponseEntity>map(usuario -> ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .token(tokenService.gerar(usuario))
+                        .build()))
+                .onErrorResume(ErroAutenticacao.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Muitas tentativas de autenticação simultâneas, tente novamente em instantes.")));
+    }
+
+    @PostMapping("salvar")
+    public Mono<ResponseEntity> salvar(@RequestBody UsuarioDTO usuariodto) {
+        Usuario usuario = Usuario.builder()
+                .email(usuariodto.getEmail())
+                .nome(usuariodto.getNome())
+                .senha(usuariodto.getSenha())
+                .build();
+        return usuarioService.salvarUsuario(usuario)
+                .<ResponseEntity>map(usuarioSalvo -> ResponseEntity.status(HttpStatus.CREATED).body(usuarioSalvo))
+                .onErrorResume(RegraNegocioException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    @GetMapping("{id}/saldo")
+    public Mono<ResponseEntity> obterSaldo(@PathVariable("id") Long id) {
+        return usuarioService.obterPorId(id)
+                .flatMap(usuario -> lancamentoService.obterSaldo(id))
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(ErroAutenticacao.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())));
+    }
+
+    @GetMapping("{id}/resumo")
+    public Mono<ResponseEntity> obterResumo(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+            @RequestParam(value = "anoFinal", required = false) Integer anoFinal) {
+        return usuarioService.obterPorId(id)
+                .flatMap(usuario -> lancamentoService.obterResumo(id, anoInicial, anoFinal).collectList())
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(ErroAutenticacao.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())))
+                .onErrorResume(RegraNegocioException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+}
@@ -0,0 +1,66 @@
+package com.maquirino.minhasfinancas.reativo.config;
+
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.service.TokenService;
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reativo de {@code AutenticacaoTokenFilter}: o usuário do token fica no atributo
+ * {@link #USUARIO_AUTENTICADO} da troca, lido pelos recursos com {@code @RequestAttribute}.
+ */
+@Component
+public class AutenticacaoTokenWebFilter implements WebFilter {
+
+    public static final String USUARIO_AUTENTICADO = "minhasfinancas.usuarioAutenticado";
+
+    private static final String PREFIXO_PROTEGIDO = "/api/lancamentos";
+    private static final String BEARER = "Bearer ";
+
+    @Value("${minhasfinancas.token.obrigatorio:true}")
+    private boolean obrigatorio;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String caminho = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())
+                || !(caminho.equals(PREFIXO_PROTEGIDO) || caminho.startsWith(PREFIXO_PROTEGIDO + "/"))) {
+            return chain.filter(exchange);
+        }
+
+        String autorizacao = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (autorizacao == null || !autorizacao.startsWith(BEARER)) {
+            return obrigatorio ? naoAutorizado(exchange.getResponse(), "Informe o token de autenticação.") : chain.filter(exchange);
+        }
+
+        try {
+            exchange.getAttributes().put(USUARIO_AUTENTICADO, tokenService.validar(autorizacao.substring(BEARER.length()).trim()));
+        } catch (ErroAutenticacao e) {
+            return naoAutorizado(exchange.getResponse(), e.getMessage());
+        }
+        return chain.filter(exchange);
+    }
+
+    private static Mono<Void> naoAutorizado(ServerHttpResponse response, String mensagem) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        DataBuffer corpo = response.bufferFactory().wrap(mensagem.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(corpo));
+    }
+}
@@ -0,0 +1,45 @@
+package com.maquirino.minhasfinancas.reativo.model.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Grava na mesma outbox de {@code EventoLancamentoServiceImpl}; a publicação continua com o relay
+ * da aplicação servlet.
+ */
+@Repository
+public class EventoLancamentoRepositoryReativo {
+
+    @Autowired
+    private DatabaseClient client;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Mono<Void> registrar(TipoEventoLancamento tipo, DadosLancamento lancamento) {
+        return Mono.fromCallable(() -> dados(lancamento))
+                .flatMap(dados -> client.sql("insert into financas.evento_lancamento (id, id_lancamento, id_usuario, tipo, dados, data_criacao)"
+                                + " values (nextval('financas.evento_lancamento_id_seq'), :lancamento, :usuario, :tipo, :dados, :data)")
+                        .bind("lancamento", lancamento.getId())
+                        .bind("usuario", lancamento.getUsuario())
+                        .bind("tipo", tipo.name())
+                        .bind("dados", dados)
+                        .bind("data", LocalDateTime.now())
+                        .then());
+    }
+
+    private String dados(DadosLancamento lancamento) {
+        try {
+            return objectMapper.writeValueAsString(lancamento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o lançamento " + lancamento.getId(), e);
+        }
+    }
+}
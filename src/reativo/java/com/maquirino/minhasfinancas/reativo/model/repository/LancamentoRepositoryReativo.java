@@ -0,0 +1,159 @@
+package com.maquirino.minhasfinancas.reativo.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import io.r2dbc.spi.Row;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class LancamentoRepositoryReativo {
+
+    private static final char ESCAPE = '\\';
+    private static final String COLUNAS = "select id, descricao, mes, ano, valor, tipo, status, versao, id_usuario from financas.lancamento";
+
+    @Autowired
+    private DatabaseClient client;
+
+    public Flux<DadosLancamento> buscarPagina(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite) {
+        StringBuilder sql = new StringBuilder(COLUNAS).append(" where id_usuario = :usuario");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("usuario", lancamentoFiltro.getUsuario().getId());
+        if (lancamentoFiltro.getAno() != null) {
+            sql.append(" and ano = :ano");
+            parametros.put("ano", lancamentoFiltro.getAno());
+        }
+        if (lancamentoFiltro.getMes() != null) {
+            sql.append(" and mes = :mes");
+            parametros.put("mes", lancamentoFiltro.getMes());
+        }
+        if (lancamentoFiltro.getDescricao() != null) {
+            sql.append(" and lower(descricao) like :descricao escape '\\'");
+            parametros.put("descricao", contendo(lancamentoFiltro.getDescricao()));
+        }
+        if (cursor != null) {
+            sql.append(" and ano >= :cursorAno and (ano > :cursorAno or (ano = :cursorAno and mes > :cursorMes)"
+                    + " or (ano = :cursorAno and mes = :cursorMes and id > :cursorId))");
+            parametros.put("cursorAno", cursor.getAno());
+            parametros.put("cursorMes", cursor.getMes());
+            parametros.put("cursorId", cursor.getId());
+        }
+        sql.append(" order by ano, mes, id limit :limite");
+        parametros.put("limite", limite);
+
+        DatabaseClient.GenericExecuteSpec consulta = client.sql(sql.toString());
+        for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+            consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+        }
+        return consulta.map((row, metadata) -> dados(row)).all();
+    }
+
+    public Flux<DadosLancamento> streamPorUsuario(Long idUsuario) {
+        return client.sql(COLUNAS + " where id_usuario = :usuario order by id")
+                .bind("usuario", idUsuario)
+                .map((row, metadata) -> dados(row))
+                .all();
+    }
+
+    public Mono<DadosLancamento> obterDados(Long id) {
+        return client.sql(COLUNAS + " where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> dados(row))
+                .one();
+    }
+
+    public Mono<DadosLancamento> obterParaAtualizacao(Long id) {
+        return client.sql(COLUNAS + " where id = :id for update")
+                .bind("id", id)
+                .map((row, metadata) -> dados(row))
+                .one();
+    }
+
+    public Mono<Long> proximoId() {
+        return client.sql("select nextval('financas.lancamento_id_seq')")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Integer> inserir(Long id, Lancamento lancamento) {
+        return client.sql("insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, versao, alteracao, id_usuario)"
+                        + " values (:id, :descricao, :mes, :ano, :valor, :tipo, :status, 0, :alteracao, :usuario)")
+                .bind("id", id)
+                .bind("descricao", lancamento.getDescricao())
+                .bind("mes", lancamento.getMes())
+                .bind("ano", lancamento.getAno())
+                .bind("valor", lancamento.getValor())
+                .bind("tipo", lancamento.getTipo().name())
+                .bind("status", lancamento.getStatus().name())
+                .bind("alteracao", lancamento.getAlteracao())
+                .bind("usuario", lancamento.getUsuario().getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> atualizar(Lancamento lancamento) {
+        return client.sql("update financas.lancamento set descricao = :descricao, mes = :mes, ano = :ano, valor = :valor,"
+                        + " tipo = :tipo, status = :status, id_usuario = :usuario, versao = versao + 1,"
+                        + " alteracao = :alteracao where id = :id and versao = :versao")
+                .bind("descricao", lancamento.getDescricao())
+                .bind("mes", lancamento.getMes())
+                .bind("ano", lancamento.getAno())
+                .bind("valor", lancamento.getValor())
+                .bind("tipo", lancamento.getTipo().name())
+                .bind("status", lancamento.getStatus().name())
+                .bind("usuario", lancamento.getUsuario().getId())
+                .bind("alteracao", lancamento.getAlteracao())
+                .bind("id", lancamento.getId())
+                .bind("versao", lancamento.getVersao())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> atualizarStatus(Long id, StatusLancamento status, Long alteracao) {
+        return client.sql("update financas.lancamento set status = :status, versao = versao + 1, alteracao = :alteracao"
+                        + " where id = :id and status <> :status")
+                .bind("status", status.name())
+                .bind("alteracao", alteracao)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> excluir(Long id) {
+        return client.sql("delete from financas.lancamento where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DadosLancamento dados(Row row) {
+        return new DadosLancamento(
+                row.get("id", Long.class),
+                row.get("descricao", String.class),
+                row.get("mes", Integer.class),
+                row.get("ano", Integer.class),
+                row.get("valor", BigDecimal.class),
+                TipoLancamento.valueOf(row.get("tipo", String.class)),
+                StatusLancamento.valueOf(row.get("status", String.class)),
+                row.get("versao", Long.class),
+                row.get("id_usuario", Long.class));
+    }
+
+    private static String contendo(String termo) {
+        String escapado = termo.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(ESCAPE), String.valueOf(ESCAPE) + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+        return "%" + escapado + "%";
+    }
+}
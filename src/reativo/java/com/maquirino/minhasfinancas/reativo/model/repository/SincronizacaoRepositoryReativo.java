@@ -0,0 +1,61 @@
+package com.maquirino.minhasfinancas.reativo.model.repository;
+
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mantém o contador de alterações e os lançamentos excluídos com as mesmas regras de
+ * {@code SincronizacaoServiceImpl}, para que o feed de alterações também enxergue as escritas reativas.
+ */
+@Repository
+public class SincronizacaoRepositoryReativo {
+
+    @Autowired
+    private DatabaseClient client;
+
+    public Mono<Void> iniciar(Long idUsuario) {
+        return client.sql("insert into financas.alteracao_usuario (id_usuario, alteracao, expurgado) values (:usuario, 0, 0)")
+                .bind("usuario", idUsuario)
+                .then();
+    }
+
+    public Mono<Long> registrar(Long idUsuario) {
+        return incrementar(idUsuario)
+                .flatMap(alterados -> alterados > 0
+                        ? Mono.just(alterados)
+                        : client.sql("select id from financas.usuario where id = :usuario for update")
+                                .bind("usuario", idUsuario)
+                                .then()
+                                .then(incrementar(idUsuario)))
+                .flatMap(alterados -> alterados > 0
+                        ? client.sql("select alteracao from financas.alteracao_usuario where id_usuario = :usuario")
+                                .bind("usuario", idUsuario)
+                                .map((row, metadata) -> row.get("alteracao", Long.class))
+                                .one()
+                        : client.sql("insert into financas.alteracao_usuario (id_usuario, alteracao, expurgado) values (:usuario, 1, 0)")
+                                .bind("usuario", idUsuario)
+                                .then()
+                                .thenReturn(1L));
+    }
+
+    public Mono<Void> registrarExclusao(Long idLancamento, Long idUsuario) {
+        return registrar(idUsuario)
+                .flatMap(alteracao -> client.sql("insert into financas.lancamento_excluido (id_lancamento, id_usuario, alteracao, data_exclusao)"
+                                + " values (:lancamento, :usuario, :alteracao, :data)")
+                        .bind("lancamento", idLancamento)
+                        .bind("usuario", idUsuario)
+                        .bind("alteracao", alteracao)
+                        .bind("data", LocalDateTime.now())
+                        .then());
+    }
+
+    private Mono<Integer> incrementar(Long idUsuario) {
+        return client.sql("update financas.alteracao_usuario set alteracao = alteracao + 1 where id_usuario = :usuario")
+                .bind("usuario", idUsuario)
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -0,0 +1,97 @@
+package com.maquirino.minhasfinancas.reativo.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Acesso às tabelas de saldo e resumo mensal mantidas incrementalmente, com as mesmas regras de
+ * {@code SaldoServiceImpl} e {@code ResumoServiceImpl}. Quem acumula já travou o contador do usuário em
+ * {@link SincronizacaoRepositoryReativo#registrar}, então a inserção após um update sem linhas não concorre
+ * com outra escrita do mesmo usuário.
+ */
+@Repository
+public class TotaisRepositoryReativo {
+
+    @Autowired
+    private DatabaseClient client;
+
+    public Mono<Void> acumularSaldo(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+        return client.sql("update financas.saldo_usuario set receitas = receitas + :receitas, despesas = despesas + :despesas"
+                        + " where id_usuario = :usuario")
+                .bind("receitas", receitas)
+                .bind("despesas", despesas)
+                .bind("usuario", idUsuario)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(alterados -> alterados > 0 ? Mono.empty() : client
+                        .sql("insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (:usuario, :receitas, :despesas)")
+                        .bind("usuario", idUsuario)
+                        .bind("receitas", receitas)
+                        .bind("despesas", despesas)
+                        .then());
+    }
+
+    public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+        return client.sql("select receitas - despesas as saldo from financas.saldo_usuario where id_usuario = :usuario")
+                .bind("usuario", idUsuario)
+                .map((row, metadata) -> row.get("saldo", BigDecimal.class))
+                .one()
+                .switchIfEmpty(client.sql("select coalesce(sum(case when tipo = 'RECEITA' then valor else -valor end), 0) as saldo"
+                                + " from financas.lancamento where id_usuario = :usuario")
+                        .bind("usuario", idUsuario)
+                        .map((row, metadata) -> row.get("saldo", BigDecimal.class))
+                        .one());
+    }
+
+    public Mono<Void> acumularResumo(ResumoMensal chave, BigDecimal total, long quantidade) {
+        return client.sql("update financas.resumo_mensal set total = total + :total, quantidade = quantidade + :quantidade"
+                        + " where id_usuario = :usuario and ano = :ano and mes = :mes and tipo = :tipo and status = :status")
+                .bind("total", total)
+                .bind("quantidade", quantidade)
+                .bind("usuario", chave.getIdUsuario())
+                .bind("ano", chave.getAno())
+                .bind("mes", chave.getMes())
+                .bind("tipo", chave.getTipo().name())
+                .bind("status", chave.getStatus().name())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(alterados -> alterados > 0 ? Mono.empty() : client
+                        .sql("insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)"
+                                + " values (:usuario, :ano, :mes, :tipo, :status, :total, :quantidade)")
+                        .bind("usuario", chave.getIdUsuario())
+                        .bind("ano", chave.getAno())
+                        .bind("mes", chave.getMes())
+                        .bind("tipo", chave.getTipo().name())
+                        .bind("status", chave.getStatus().name())
+                        .bind("total", total)
+                        .bind("quantidade", quantidade)
+                        .then());
+    }
+
+    public Flux<ResumoMensal> obterResumo(Long idUsuario, int anoInicial, int anoFinal) {
+        return client.sql("select id, id_usuario, ano, mes, tipo, status, total, quantidade from financas.resumo_mensal"
+                        + " where id_usuario = :usuario and ano between :anoInicial and :anoFinal and quantidade > 0"
+                        + " order by ano, mes, tipo, status")
+                .bind("usuario", idUsuario)
+                .bind("anoInicial", anoInicial)
+                .bind("anoFinal", anoFinal)
+                .map((row, metadata) -> ResumoMensal.builder()
+                        .id(row.get("id", Long.class))
+                        .idUsuario(row.get("id_usuario", Long.class))
+                        .ano(row.get("ano", Integer.class))
+                        .mes(row.get("mes", Integer.class))
+                        .tipo(TipoLancamento.valueOf(row.get("tipo", String.class)))
+                        .status(StatusLancamento.valueOf(row.get("status", String.class)))
+                        .total(row.get("total", BigDecimal.class))
+                        .quantidade(row.get("quantidade", Long.class))
+                        .build())
+                .all();
+    }
+}
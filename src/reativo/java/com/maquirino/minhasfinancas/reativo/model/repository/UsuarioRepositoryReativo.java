@@ -0,0 +1,65 @@
+package com.maquirino.minhasfinancas.reativo.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UsuarioRepositoryReativo {
+
+    private static final String COLUNAS = "select id, nome, email, senha from financas.usuario";
+
+    @Autowired
+    private DatabaseClient client;
+
+    public Mono<Usuario> findById(Long id) {
+        return client.sql(COLUNAS + " where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> usuario(row))
+                .one();
+    }
+
+    public Mono<Usuario> findByEmail(String email) {
+        return client.sql(COLUNAS + " where email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> usuario(row))
+                .first();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return client.sql("select count(*) from financas.usuario where email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    public Mono<Usuario> inserir(Usuario usuario) {
+        return client.sql("insert into financas.usuario (nome, email, senha) values (:nome, :email, :senha)")
+                .filter((statement, next) -> next.execute(statement.returnGeneratedValues("id")))
+                .bind("nome", usuario.getNome())
+                .bind("email", usuario.getEmail())
+                .bind("senha", usuario.getSenha())
+                .map((row, metadata) -> usuario.toBuilder().id(row.get("id", Long.class)).build())
+                .one();
+    }
+
+    public Mono<Integer> atualizarSenha(Long id, String senha) {
+        return client.sql("update financas.usuario set senha = :senha where id = :id")
+                .bind("senha", senha)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Usuario usuario(Row row) {
+        return Usuario.builder()
+                .id(row.get("id", Long.class))
+                .nome(row.get("nome", String.class))
+                .email(row.get("email", String.class))
+                .senha(row.get("senha", String.class))
+                .build();
+    }
+}
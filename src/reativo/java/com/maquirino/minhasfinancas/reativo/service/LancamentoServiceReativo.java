@@ -0,0 +1,31 @@
+package com.maquirino.minhasfinancas.reativo.service;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import java.math.BigDecimal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LancamentoServiceReativo {
+
+    Mono<DadosLancamento> salvar(Lancamento lancamento);
+
+    Mono<DadosLancamento> atualizar(Lancamento lancamento);
+
+    Mono<Void> deletar(Long idLancamento);
+
+    Mono<PaginaLancamento> buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho);
+
+    Flux<DadosLancamento> exportar(Long idUsuario);
+
+    Mono<DadosLancamento> atualizarStatus(Long idLancamento, StatusLancamento statusLancamento, Long versao);
+
+    Mono<DadosLancamento> obterDados(Long idLancamento);
+
+    Mono<BigDecimal> obterSaldo(Long idUsuario);
+
+    Flux<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal);
+}
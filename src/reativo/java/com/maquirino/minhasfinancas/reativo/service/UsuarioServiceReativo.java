@@ -0,0 +1,13 @@
+package com.maquirino.minhasfinancas.reativo.service;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import reactor.core.publisher.Mono;
+
+public interface UsuarioServiceReativo {
+
+    Mono<Usuario> autenticar(String email, String senha);
+
+    Mono<Usuario> salvarUsuario(Usuario usuario);
+
+    Mono<Usuario> obterPorId(Long id);
+}
@@ -0,0 +1,203 @@
+package com.maquirino.minhasfinancas.reativo.service.impl;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.reativo.model.repository.EventoLancamentoRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.model.repository.LancamentoRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.model.repository.SincronizacaoRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.model.repository.TotaisRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.service.LancamentoServiceReativo;
+import com.maquirino.minhasfinancas.service.impl.LancamentoServiceImpl;
+import com.maquirino.minhasfinancas.service.impl.ResumoServiceImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class LancamentoServiceReativoImpl implements LancamentoServiceReativo {
+
+    @Autowired
+    LancamentoRepositoryReativo repository;
+
+    @Autowired
+    TotaisRepositoryReativo totaisRepository;
+
+    @Autowired
+    EventoLancamentoRepositoryReativo eventoRepository;
+
+    @Autowired
+    SincronizacaoRepositoryReativo sincronizacaoRepository;
+
+    @Override
+    @Transactional
+    public Mono<DadosLancamento> salvar(Lancamento lancamento) {
+        return Mono.fromRunnable(() -> LancamentoServiceImpl.validarLancamento(lancamento))
+                .then(repository.proximoId())
+                .zipWith(Mono.defer(() -> sincronizacaoRepository.registrar(lancamento.getUsuario().getId())))
+                .flatMap(ids -> {
+                    Long id = ids.getT1();
+                    Lancamento novo = lancamento.toBuilder()
+                            .id(id)
+                            .status(StatusLancamento.PENDENTE)
+                            .versao(0L)
+                            .alteracao(ids.getT2())
+                            .build();
+                    return repository.inserir(id, novo)
+                            .then(registrar(DadosLancamento.de(novo)))
+                            .then(eventoRepository.registrar(TipoEventoLancamento.CRIADO, DadosLancamento.de(novo)))
+                            .thenReturn(DadosLancamento.de(novo));
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<DadosLancamento> atualizar(Lancamento lancamento) {
+        Objects.requireNonNull(lancamento.getId());
+        return Mono.fromRunnable(() -> LancamentoServiceImpl.validarLancamento(lancamento))
+                .then(repository.obterParaAtualizacao(lancamento.getId()))
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException("Lancamento não encontrado")))
+                .flatMap(anterior -> sincronizacaoRepository.registrar(lancamento.getUsuario().getId())
+                        .flatMap(alteracao -> repository.atualizar(lancamento.toBuilder().alteracao(alteracao).build()))
+                        .flatMap(alterados -> alterados == 0
+                                ? Mono.error(new OptimisticLockingFailureException("Lancamento " + lancamento.getId()))
+                                : estornar(anterior))
+                        .then(repository.obterDados(lancamento.getId())))
+                .flatMap(atualizado -> registrar(atualizado)
+                        .then(eventoRepository.registrar(TipoEventoLancamento.ATUALIZADO, atualizado))
+                        .thenReturn(atualizado));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deletar(Long id) {
+        return repository.obterParaAtualizacao(id)
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException("Lancamento não encontrado")))
+                .flatMap(anterior -> repository.excluir(id)
+                        .then(sincronizacaoRepository.registrarExclusao(id, anterior.getUsuario()))
+                        .then(estornar(anterior))
+                        .then(eventoRepository.registrar(TipoEventoLancamento.EXCLUIDO, anterior)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<PaginaLancamento> buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho) {
+        return Mono.defer(() -> {
+            int limite = tamanho == null
+                    ? LancamentoServiceImpl.TAMANHO_PAGINA_PADRAO
+                    : Math.min(tamanho, LancamentoServiceImpl.TAMANHO_PAGINA_MAXIMO);
+            if (limite < 1) {
+                return Mono.error(new RegraNegocioException("Tamanho de página inválido, por favor informe um valor maior que 0."));
+            }
+            CursorLancamento posicao = cursor == null || cursor.isBlank() ? null : CursorLancamento.decodificar(cursor);
+
+            return repository.buscarPagina(lancamentoFiltro, posicao, limite + 1)
+                    .collectList()
+                    .map(lancamentos -> pagina(lancamentos, limite));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<DadosLancamento> exportar(Long idUsuario) {
+        return repository.streamPorUsuario(idUsuario);
+    }
+
+    @Override
+    @Transactional
+    public Mono<DadosLancamento> atualizarStatus(Long id, StatusLancamento statusLancamento, Long versao) {
+        Objects.requireNonNull(statusLancamento);
+        return repository.obterParaAtualizacao(id)
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException("Lancamento não encontrado")))
+                .flatMap(anterior -> {
+                    if (versao != null && !versao.equals(anterior.getVersao())) {
+                        return Mono.error(new OptimisticLockingFailureException("Lancamento " + id));
+                    }
+                    if (anterior.getStatus() == statusLancamento) {
+                        return Mono.just(anterior);
+                    }
+                    ResumoMensal chave = chave(anterior);
+                    return sincronizacaoRepository.registrar(anterior.getUsuario())
+                            .flatMap(alteracao -> repository.atualizarStatus(id, statusLancamento, alteracao))
+                            .then(totaisRepository.acumularResumo(chave, anterior.getValor().negate(), -1L))
+                            .then(totaisRepository.acumularResumo(chave.toBuilder().status(statusLancamento).build(),
+                                    anterior.getValor(), 1L))
+                            .then(repository.obterDados(id))
+                            .flatMap(dados -> eventoRepository.registrar(TipoEventoLancamento.STATUS_ALTERADO, dados)
+                                    .thenReturn(dados));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<DadosLancamento> obterDados(Long id) {
+        return repository.obterDados(id)
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException("Lancamento não encontrado")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+        return totaisRepository.obterSaldo(idUsuario);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+        int inicio = anoInicial == null ? ResumoServiceImpl.ANO_MINIMO : anoInicial;
+        int fim = anoFinal == null ? ResumoServiceImpl.ANO_MAXIMO : anoFinal;
+        if (inicio > fim) {
+            return Flux.error(new RegraNegocioException("Ano inicial deve ser menor ou igual ao ano final."));
+        }
+        return totaisRepository.obterResumo(idUsuario, inicio, fim);
+    }
+
+    private Mono<Void> registrar(DadosLancamento lancamento) {
+        return acumular(lancamento, lancamento.getValor(), 1L);
+    }
+
+    private Mono<Void> estornar(DadosLancamento lancamento) {
+        return acumular(lancamento, lancamento.getValor().negate(), -1L);
+    }
+
+    private Mono<Void> acumular(DadosLancamento lancamento, BigDecimal valor, long quantidade) {
+        BigDecimal receitas = lancamento.getTipo() == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+        BigDecimal despesas = lancamento.getTipo() == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+        return totaisRepository.acumularSaldo(lancamento.getUsuario(), receitas, despesas)
+                .then(totaisRepository.acumularResumo(chave(lancamento), valor, quantidade));
+    }
+
+    private static PaginaLancamento pagina(List<DadosLancamento> lancamentos, int limite) {
+        String proximoCursor = null;
+        if (lancamentos.size() > limite) {
+            lancamentos = lancamentos.subList(0, limite);
+            proximoCursor = CursorLancamento.de(lancamentos.get(limite - 1)).codificar();
+        }
+        return PaginaLancamento.builder()
+                .lancamentos(lancamentos)
+                .proximoCursor(proximoCursor)
+                .build();
+    }
+
+    private static ResumoMensal chave(DadosLancamento lancamento) {
+        return ResumoMensal.builder()
+                .idUsuario(lancamento.getUsuario())
+                .ano(lancamento.getAno())
+                .mes(lancamento.getMes())
+                .tipo(lancamento.getTipo())
+                .status(lancamento.getStatus())
+                .build();
+    }
+}
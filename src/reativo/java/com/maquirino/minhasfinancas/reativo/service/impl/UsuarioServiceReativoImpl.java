@@ -0,0 +1,72 @@
+package com.maquirino.minhasfinancas.reativo.service.impl;
+
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.reativo.model.repository.SincronizacaoRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.model.repository.UsuarioRepositoryReativo;
+import com.maquirino.minhasfinancas.reativo.service.UsuarioServiceReativo;
+import com.maquirino.minhasfinancas.service.SenhaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UsuarioServiceReativoImpl implements UsuarioServiceReativo {
+
+    @Autowired
+    private UsuarioRepositoryReativo repository;
+
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private SincronizacaoRepositoryReativo sincronizacaoRepository;
+
+    @Override
+    public Mono<Usuario> autenticar(String email, String senha) {
+        return repository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new ErroAutenticacao("Usuário não encontrado")))
+                .flatMap(usuario -> Mono.fromFuture(senhaService.executar(() -> validaSenha(senha, usuario))))
+                .flatMap(usuario -> usuario.getSenha() == null
+                        ? Mono.just(usuario)
+                        : repository.atualizarSenha(usuario.getId(), usuario.getSenha())
+                                .thenReturn(usuario.toBuilder().senha(null).build()));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Usuario> salvarUsuario(Usuario usuario) {
+        return repository.existsByEmail(usuario.getEmail())
+                .flatMap(existe -> {
+                    if (existe) {
+                        return Mono.error(new RegraNegocioException("Já Existe um usuário cadastrado com o email informado"));
+                    }
+                    if (usuario.getSenha() == null || usuario.getSenha().isBlank()) {
+                        return Mono.error(new RegraNegocioException("Informe a senha."));
+                    }
+                    return Mono.fromFuture(senhaService.executar(() -> senhaService.codificar(usuario.getSenha())));
+                })
+                .flatMap(senha -> repository.inserir(usuario.toBuilder().senha(senha).build()))
+                .flatMap(salvo -> sincronizacaoRepository.iniciar(salvo.getId()).thenReturn(salvo));
+    }
+
+    @Override
+    public Mono<Usuario> obterPorId(Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ErroAutenticacao("Usuário não encontrado")));
+    }
+
+    /**
+     * Confere a senha no pool de {@link SenhaService}. O usuário devolvido só traz a senha quando ela
+     * precisa ser regravada com o custo atual, o que é feito fora do pool pelo repositório reativo.
+     */
+    private Usuario validaSenha(String senha, Usuario usuario) {
+        if (!senhaService.confere(senha, usuario.getSenha())) {
+            throw new ErroAutenticacao("Senha incorreta");
+        }
+        String senhaAtualizada = senhaService.precisaAtualizar(usuario.getSenha()) ? senhaService.codificar(senha) : null;
+        return usuario.toBuilder().senha(senhaAtualizada).build();
+    }
+}
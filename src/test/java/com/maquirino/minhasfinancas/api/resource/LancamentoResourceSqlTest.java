@@ -0,0 +1,219 @@
+package com.maquirino.minhasfinancas.api.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.SaldoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.maquirino.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.SaldoService;
+import com.maquirino.minhasfinancas.service.SincronizacaoService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.maquirino.minhasfinancas.config.ContagemSql.assertQuantidadeSql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LancamentoResourceSqlTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    private ResumoMensalRepository resumoMensalRepository;
+
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private SincronizacaoService sincronizacaoService;
+
+    private Usuario usuario;
+    private List<Lancamento> lancamentos;
+
+    @BeforeEach
+    public void setUp() {
+        usuario = usuarioService.salvarUsuario(Usuario.builder()
+                .nome("sql")
+                .email("sql@test.com.br")
+                .senha("123")
+                .build());
+        Lancamento lancamento = Lancamento.builder()
+                .usuario(usuario)
+                .descricao("Descricao")
+                .mes(10)
+                .ano(2021)
+                .valor(BigDecimal.TEN)
+                .tipo(TipoLancamento.RECEITA)
+                .status(StatusLancamento.PENDENTE)
+                .build();
+        lancamentos = lancamentoService.salvar(List.of(lancamento, lancamento.toBuilder().build(), lancamento.toBuilder().build()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lancamentoRepository.deleteAll();
+        saldoUsuarioRepository.deleteAll();
+        resumoMensalRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    public void deveBuscarLancamentosComDoisComandos() throws Throwable {
+        assertQuantidadeSql(2, () -> mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void deveResponderBuscaNaoModificadaComUmComando() throws Throwable {
+        String etag = mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertQuantidadeSql(1, () -> mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()));
+    }
+
+    @Test
+    public void deveResponderSaldoNaoModificadoComUmComando() throws Throwable {
+        String etag = mvc.perform(get("/api/usuarios/" + usuario.getId() + "/saldo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertQuantidadeSql(1, () -> mvc.perform(get("/api/usuarios/" + usuario.getId() + "/saldo")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()));
+    }
+
+    @Test
+    public void deveResponderSaldoNaoModificadoDeUsuarioSemLancamentos() throws Throwable {
+        Usuario novo = usuarioService.salvarUsuario(Usuario.builder()
+                .nome("sem lancamentos")
+                .email("sem-lancamentos@test.com.br")
+                .senha("123")
+                .build());
+        String etag = mvc.perform(get("/api/usuarios/" + novo.getId() + "/saldo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals("\"" + novo.getId() + "-0\"", etag);
+        mvc.perform(get("/api/usuarios/" + novo.getId() + "/saldo").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void deveTrocarEtagDoSaldoCorrigidoPelaReconciliacao() throws Throwable {
+        SaldoUsuario saldo = saldoUsuarioRepository.findById(usuario.getId()).orElseThrow();
+        saldo.setReceitas(BigDecimal.ONE);
+        saldoUsuarioRepository.save(saldo);
+        String etag = mvc.perform(get("/api/usuarios/" + usuario.getId() + "/saldo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        saldoService.reconciliar();
+
+        mvc.perform(get("/api/usuarios/" + usuario.getId() + "/saldo").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string("30.00"));
+    }
+
+    @Test
+    public void deveAlterarEtagDaBuscaAposSalvarLancamento() throws Throwable {
+        String etag = mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        lancamentoService.salvar(lancamentos.get(0).toBuilder().id(null).versao(null).build());
+
+        mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void deveObterSaldoComDoisComandos() throws Throwable {
+        assertQuantidadeSql(2, () -> mvc.perform(get("/api/usuarios/" + usuario.getId() + "/saldo"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void deveSalvarLancamentoComSeteComandos() throws Throwable {
+        LancamentoDTO lancamentoDTO = LancamentoDTO.builder()
+                .descricao("Descricao")
+                .mes(10)
+                .ano(2021)
+                .valor(BigDecimal.ONE)
+                .tipo(TipoLancamento.RECEITA)
+                .usuario(usuario.getId())
+                .build();
+
+        assertQuantidadeSql(7, () -> mvc.perform(post("/api/lancamentos/salvar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lancamentoDTO)))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    public void deveAtualizarStatusComOitoComandos() throws Throwable {
+        AtualizaStatusDTO atualizaStatusDTO = new AtualizaStatusDTO();
+        atualizaStatusDTO.setStatus(StatusLancamento.EFETIVADO.name());
+
+        assertQuantidadeSql(8, () -> mvc.perform(put("/api/lancamentos/" + lancamentos.get(0).getId() + "/atualizar/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(atualizaStatusDTO)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void deveAceitarStatusRepetidoSemEscrever() throws Throwable {
+        AtualizaStatusDTO atualizaStatusDTO = new AtualizaStatusDTO();
+        atualizaStatusDTO.setStatus(StatusLancamento.PENDENTE.name());
+        Long alteracao = sincronizacaoService.obterAlteracao(usuario.getId()).orElseThrow();
+
+        assertQuantidadeSql(1, () -> mvc.perform(put("/api/lancamentos/" + lancamentos.get(0).getId() + "/atualizar/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(atualizaStatusDTO)))
+                .andExpect(status().isOk()));
+        assertEquals(alteracao, sincronizacaoService.obterAlteracao(usuario.getId()).orElseThrow());
+    }
+}
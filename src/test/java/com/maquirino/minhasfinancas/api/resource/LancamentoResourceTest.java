@@ -2,40 +2,69 @@ package com.maquirino.minhasfinancas.api.resource;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.maquirino.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.maquirino.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
 import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.exception.AcessoNegadoException;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.exception.ImportacaoInterrompidaException;
+import com.maquirino.minhasfinancas.exception.LoteInvalidoException;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.exception.SincronizacaoExpiradaException;
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
 import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.AlteracoesLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
+import com.maquirino.minhasfinancas.service.ImportacaoService;
 import com.maquirino.minhasfinancas.service.LancamentoService;
 import com.maquirino.minhasfinancas.service.UsuarioService;
+import com.maquirino.minhasfinancas.service.importacao.FormatoExtrato;
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import static com.maquirino.minhasfinancas.model.enums.StatusLancamento.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -66,6 +95,9 @@ public class LancamentoResourceTest {
     @MockBean
     private LancamentoService service;
 
+    @MockBean
+    private ImportacaoService importacaoService;
+
     @BeforeEach
     public void setUp() {
         lancamentoDTO = LancamentoDTO.builder()
@@ -141,7 +173,7 @@ public class LancamentoResourceTest {
                 .andExpect(jsonPath("valor").value(lancamento.getValor()))
                 .andExpect(jsonPath("mes").value(lancamento.getMes()))
                 .andExpect(jsonPath("ano").value(lancamento.getAno()))
-                .andExpect(jsonPath("usuario").value(lancamento.getUsuario()))
+                .andExpect(jsonPath("usuario").value(usuario.getId()))
                 .andExpect(jsonPath("tipo").value(lancamento.getTipo().toString()))
                 .andExpect(jsonPath("status").value(lancamento.getStatus().toString()));
     }
@@ -163,8 +195,8 @@ public class LancamentoResourceTest {
     @Test
     public void deveAtualizarLancamento() throws Exception {
         when(service.obterPorId(anyLong())).thenReturn(lancamento);
-        when(usuarioService.obterPorId(anyLong())).thenReturn(usuario);
-        when(service.atualizar(lancamento)).thenReturn(lancamentoAtualizado);
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.atualizar(any(Lancamento.class))).thenReturn(lancamentoAtualizado);
 
         String json = objectMapper.writeValueAsString(lancamentoDTOAtualizado);
 
@@ -180,7 +212,7 @@ public class LancamentoResourceTest {
                 .andExpect(jsonPath("valor").value(lancamentoAtualizado.getValor()))
                 .andExpect(jsonPath("mes").value(lancamentoAtualizado.getMes()))
                 .andExpect(jsonPath("ano").value(lancamentoAtualizado.getAno()))
-                .andExpect(jsonPath("usuario").value(lancamentoAtualizado.getUsuario()))
+                .andExpect(jsonPath("usuario").value(usuario.getId()))
                 .andExpect(jsonPath("tipo").value(lancamentoAtualizado.getTipo().toString()))
                 .andExpect(jsonPath("status").value(lancamentoAtualizado.getStatus().toString()));
     }
@@ -203,11 +235,28 @@ public class LancamentoResourceTest {
 
     @Test
     public void deveAtualizarStatusLancamento() throws Exception {
-        when(service.obterPorId(anyLong())).thenReturn(lancamento);
+        atualizaStatusDTO.setVersao(3L);
+        when(service.atualizarStatus(1L, PENDENTE, 3L, null)).thenReturn(new DadosLancamento(1L, "Descricao", 1, 2021,
+                BigDecimal.TEN, TipoLancamento.RECEITA, PENDENTE, 4L, 1L));
+        String json = objectMapper.writeValueAsString(atualizaStatusDTO);
 
-        lancamento.setStatus(PENDENTE);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/1/atualizar/status"))
+                .contentType(JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("versao").value(4L))
+                .andExpect(jsonPath("status").value(PENDENTE.toString()));
+
+        verify(service).atualizarStatus(1L, PENDENTE, 3L, null);
+        verify(service, never()).obterPorId(anyLong());
+    }
 
-        when(service.atualizarStatus(any(Lancamento.class), any(StatusLancamento.class))).thenReturn(lancamento);
+    @Test
+    public void deveNaoAtualizarStatusLancamento() throws Exception {
+        doThrow(RegraNegocioException.class).when(service).atualizarStatus(anyLong(), any(StatusLancamento.class), any(), any());
 
         String json = objectMapper.writeValueAsString(atualizaStatusDTO);
 
@@ -217,34 +266,91 @@ public class LancamentoResourceTest {
                 .content(json);
 
         mvc.perform(request)
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("id").value(lancamento.getId()))
-                .andExpect(jsonPath("descricao").value(lancamento.getDescricao()))
-                .andExpect(jsonPath("valor").value(lancamento.getValor()))
-                .andExpect(jsonPath("mes").value(lancamento.getMes()))
-                .andExpect(jsonPath("ano").value(lancamento.getAno()))
-                .andExpect(jsonPath("usuario").value(lancamento.getUsuario()))
-                .andExpect(jsonPath("tipo").value(lancamento.getTipo().toString()))
-                .andExpect(jsonPath("status").value(lancamento.getStatus().toString()));
+                .andExpect(status().isBadRequest());
     }
 
     @Test
-    public void deveNaoAtualizarStatusLancamento() throws Exception {
-        when(service.obterPorId(anyLong())).thenReturn(lancamento);
+    public void deveResponderConflitoParaStatusComVersaoDesatualizada() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 1L))
+                .when(service).atualizarStatus(anyLong(), any(StatusLancamento.class), any(), any());
 
-        lancamento.setStatus(PENDENTE);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/1/atualizar/status"))
+                .contentType(JSON)
+                .content(objectMapper.writeValueAsString(atualizaStatusDTO));
 
-        when(service.atualizarStatus(any(Lancamento.class), any(StatusLancamento.class))).thenThrow(RegraNegocioException.class);
+        mvc.perform(request)
+                .andExpect(status().isConflict());
+    }
 
-        String json = objectMapper.writeValueAsString(atualizaStatusDTO);
+    @Test
+    public void deveNegarAtualizacaoDeStatusDeLancamentoDeOutroUsuario() throws Exception {
+        doThrow(AcessoNegadoException.class).when(service).atualizarStatus(anyLong(), any(StatusLancamento.class), any(), any());
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .put(API.concat("/1/atualizar/status"))
                 .contentType(JSON)
-                .content(json);
+                .content(objectMapper.writeValueAsString(atualizaStatusDTO));
+
+        mvc.perform(request)
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void deveAtualizarStatusDeLancamentosEmLote() throws Exception {
+        when(usuarioService.obterReferencia(1L)).thenReturn(usuario);
+        when(service.atualizarStatus(any(Lancamento.class), eq(List.of(1L, 2L)), eq(EFETIVADO))).thenReturn(2);
+
+        AtualizaStatusLoteDTO atualizaStatusLoteDTO = AtualizaStatusLoteDTO.builder()
+                .usuario(1L)
+                .ids(List.of(1L, 2L))
+                .status("efetivado")
+                .build();
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/atualizar/status/lote"))
+                .contentType(JSON)
+                .content(objectMapper.writeValueAsString(atualizaStatusLoteDTO));
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("2"));
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusEmLoteSemUsuario() throws Exception {
+        AtualizaStatusLoteDTO atualizaStatusLoteDTO = AtualizaStatusLoteDTO.builder()
+                .ano(2021)
+                .mes(1)
+                .status("cancelado")
+                .build();
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/atualizar/status/lote"))
+                .contentType(JSON)
+                .content(objectMapper.writeValueAsString(atualizaStatusLoteDTO));
 
         mvc.perform(request)
                 .andExpect(status().isBadRequest());
+
+        verify(service, never()).atualizarStatus(any(Lancamento.class), any(), any(StatusLancamento.class));
+    }
+
+    @Test
+    public void deveNaoAtualizarLancamentoAlteradoConcorrentemente() throws Exception {
+        when(service.obterPorId(anyLong())).thenReturn(lancamento);
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.atualizar(any(Lancamento.class))).thenThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 1L));
+
+        String json = objectMapper.writeValueAsString(lancamentoDTOAtualizado.toBuilder().versao(1L).build());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/atualizar/1"))
+                .contentType(JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -343,14 +449,17 @@ public class LancamentoResourceTest {
 
     @Test
     public void deveBuscarLancamento() throws Exception {
-        List<Lancamento> listaLancamentos = new ArrayList<>();
-        listaLancamentos.add(lancamento);
-        listaLancamentos.add(lancamentoAtualizado);
+        List<DadosLancamento> listaLancamentos = new ArrayList<>();
+        listaLancamentos.add(DadosLancamento.de(lancamento));
+        listaLancamentos.add(DadosLancamento.de(lancamentoAtualizado));
 
         Lancamento filtro = Lancamento.builder().usuario(usuario).build();
 
-        when(usuarioService.obterPorId(anyLong())).thenReturn(usuario);
-        when(service.buscar(filtro)).thenReturn(listaLancamentos);
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.buscar(filtro, null, null)).thenReturn(PaginaLancamento.builder()
+                .lancamentos(listaLancamentos)
+                .proximoCursor("cursor")
+                .build());
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(API)
@@ -358,12 +467,98 @@ public class LancamentoResourceTest {
                 .contentType(JSON);
 
         mvc.perform(request)
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("lancamentos.length()").value(2))
+                .andExpect(jsonPath("lancamentos[0].usuario").value(usuario.getId()))
+                .andExpect(jsonPath("proximoCursor").value("cursor"));
+    }
+
+    @Test
+    public void deveBuscarAlteracoesDoUsuario() throws Exception {
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.buscarAlteracoes(usuario.getId(), "cursor", 10)).thenReturn(AlteracoesLancamento.builder()
+                .lancamentos(List.of(DadosLancamento.de(lancamento)))
+                .excluidos(List.of(5L))
+                .proximoCursor("proximo")
+                .build());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/alteracoes"))
+                .queryParam("usuario", "1")
+                .queryParam("cursor", "cursor")
+                .queryParam("tamanho", "10");
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("lancamentos[0].id").value(lancamento.getId()))
+                .andExpect(jsonPath("excluidos[0]").value(5))
+                .andExpect(jsonPath("proximoCursor").value("proximo"))
+                .andExpect(jsonPath("temMais").value(false));
+    }
+
+    @Test
+    public void deveResponderGoneParaCursorDeAlteracoesExpirado() throws Exception {
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.buscarAlteracoes(usuario.getId(), "cursor", null))
+                .thenThrow(new SincronizacaoExpiradaException("Cursor de sincronização expirado"));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/alteracoes"))
+                        .queryParam("usuario", "1")
+                        .queryParam("cursor", "cursor"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    public void deveResponderBuscaNaoModificadaSemConsultarLancamentos() throws Exception {
+        when(service.obterVersaoUsuario(1L)).thenReturn(Optional.of(4L));
+
+        mvc.perform(MockMvcRequestBuilders.get(API).queryParam("usuario", "1").header(HttpHeaders.IF_NONE_MATCH, "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+
+        verify(service, never()).buscar(any(Lancamento.class), any(), any());
+        verify(usuarioService, never()).obterReferencia(anyLong());
+    }
+
+    @Test
+    public void deveObterLancamentoPorId() throws Exception {
+        when(service.obterDados(1L)).thenReturn(DadosLancamento.de(lancamento));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1))
+                .andExpect(jsonPath("descricao").value(lancamento.getDescricao()))
+                .andExpect(jsonPath("usuario").value(usuario.getId()));
+
+        verify(service, never()).obterPorId(anyLong());
+    }
+
+    @Test
+    public void deveNaoObterLancamentoInexistente() throws Exception {
+        when(service.obterDados(1L)).thenThrow(new RegraNegocioException("Lancamento não encontrado"));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void deveNaoBuscarLancamentoComCursorInvalido() throws Exception {
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(service.buscar(any(Lancamento.class), anyString(), any())).thenThrow(RegraNegocioException.class);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API)
+                .queryParam("usuario", "1")
+                .queryParam("cursor", "invalido")
+                .contentType(JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     public void deveNaoBuscarLancamento() throws Exception {
-        when(usuarioService.obterPorId(anyLong())).thenThrow(ErroAutenticacao.class);
+        when(usuarioService.obterReferencia(anyLong())).thenThrow(ErroAutenticacao.class);
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(API)
@@ -373,4 +568,211 @@ public class LancamentoResourceTest {
         mvc.perform(request)
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deveExportarLancamentosEmNdjson() throws Exception {
+        when(usuarioService.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+        doAnswer(invocation -> {
+            Consumer<Lancamento> consumidor = invocation.getArgument(1);
+            consumidor.accept(lancamento);
+            consumidor.accept(lancamentoAtualizado);
+            return null;
+        }).when(service).exportar(anyLong(), any());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/exportar"))
+                .queryParam("usuario", "1");
+
+        MvcResult resultado = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(lancamento.getMes(), objectMapper.readTree(linhas[0]).get("mes").asInt());
+        assertEquals(usuario.getId(), objectMapper.readTree(linhas[0]).get("usuario").asLong());
+        assertEquals(lancamentoAtualizado.getMes(), objectMapper.readTree(linhas[1]).get("mes").asInt());
+    }
+
+    @Test
+    public void deveExportarLancamentosEmCsv() throws Exception {
+        when(usuarioService.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+        lancamento.setDescricao("Descricao \"especial\"");
+        doAnswer(invocation -> {
+            Consumer<Lancamento> consumidor = invocation.getArgument(1);
+            consumidor.accept(lancamento);
+            return null;
+        }).when(service).exportar(anyLong(), any());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/exportar"))
+                .queryParam("usuario", "1")
+                .queryParam("formato", "csv");
+
+        MvcResult resultado = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("id;descricao;mes;ano;valor;tipo;status\n"
+                        + "1;\"Descricao \"\"especial\"\"\";10;1995;1;RECEITA;EFETIVADO\n"));
+    }
+
+    @Test
+    public void deveNeutralizarFormulasAoExportarEmCsv() throws Exception {
+        when(usuarioService.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+        lancamento.setDescricao("=HYPERLINK(\"http://exemplo\")");
+        doAnswer(invocation -> {
+            Consumer<Lancamento> consumidor = invocation.getArgument(1);
+            consumidor.accept(lancamento);
+            consumidor.accept(lancamento.toBuilder().descricao("-10+20").build());
+            return null;
+        }).when(service).exportar(anyLong(), any());
+
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders
+                        .get(API.concat("/exportar"))
+                        .queryParam("usuario", "1")
+                        .queryParam("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("id;descricao;mes;ano;valor;tipo;status\n"
+                        + "1;\"'=HYPERLINK(\"\"http://exemplo\"\")\";10;1995;1;RECEITA;EFETIVADO\n"
+                        + "1;\"'-10+20\";10;1995;1;RECEITA;EFETIVADO\n"));
+    }
+
+    @Test
+    public void deveNaoExportarComFormatoInvalido() throws Exception {
+        when(usuarioService.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/exportar"))
+                .queryParam("usuario", "1")
+                .queryParam("formato", "xml");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void deveNaoExportarParaUsuarioInexistente() throws Exception {
+        when(usuarioService.obterPorId(anyLong())).thenThrow(ErroAutenticacao.class);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/exportar"))
+                .queryParam("usuario", "1");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void deveSalvarLoteResolvendoCadaUsuarioUmaVez() throws Exception {
+        when(usuarioService.obterReferencia(1L)).thenReturn(usuario);
+        when(service.salvar(anyList())).thenReturn(List.of(lancamento, lancamentoAtualizado));
+
+        String json = objectMapper.writeValueAsString(List.of(lancamentoDTO, lancamentoDTOAtualizado));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/salvar/lote"))
+                .contentType(JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("length()").value(2));
+
+        verify(usuarioService, times(1)).obterReferencia(1L);
+    }
+
+    @Test
+    public void deveNaoSalvarLoteComErros() throws Exception {
+        when(usuarioService.obterReferencia(anyLong())).thenThrow(ErroAutenticacao.class);
+        when(service.salvar(anyList())).thenThrow(new LoteInvalidoException(Map.of(1, "Usuário informado não foi encontrado.")));
+
+        String json = objectMapper.writeValueAsString(List.of(lancamentoDTO, lancamentoDTOAtualizado));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/salvar/lote"))
+                .contentType(JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("['1']").value("Usuário informado não foi encontrado."));
+    }
+
+    @Test
+    public void deveNaoSalvarLoteVazio() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/salvar/lote"))
+                .contentType(JSON)
+                .content("[]");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void deveImportarExtrato() throws Exception {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        resultado.setLinhasLidas(2);
+        resultado.setImportados(2);
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(importacaoService.importar(any(), any(FormatoExtrato.class), any(Usuario.class))).thenReturn(resultado);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/importar"))
+                .queryParam("usuario", "1")
+                .queryParam("formato", "ofx")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("<OFX></OFX>");
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("importados").value(2));
+    }
+
+    @Test
+    public void deveInformarProgressoDeImportacaoInterrompida() throws Exception {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        resultado.setLinhasLidas(1500);
+        resultado.setImportados(1000);
+        resultado.setFalha("Não foi possível ler o extrato enviado. Importação interrompida após a linha 1500, 1000 lançamentos foram importados.");
+        when(usuarioService.obterReferencia(anyLong())).thenReturn(usuario);
+        when(importacaoService.importar(any(), any(FormatoExtrato.class), any(Usuario.class)))
+                .thenThrow(new ImportacaoInterrompidaException(resultado, new IOException()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/importar"))
+                .queryParam("usuario", "1")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("2021-01-01;Lançamento;1");
+
+        mvc.perform(request)
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("importados").value(1000))
+                .andExpect(jsonPath("linhasLidas").value(1500))
+                .andExpect(jsonPath("falha").value(resultado.getFalha()));
+    }
+
+    @Test
+    public void deveNaoImportarExtratoComFormatoInvalido() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/importar"))
+                .queryParam("usuario", "1")
+                .queryParam("formato", "xls")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -5,19 +5,29 @@ import com.maquirino.minhasfinancas.api.dto.LoginDTO;
 import com.maquirino.minhasfinancas.api.dto.UsuarioDTO;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
 import com.maquirino.minhasfinancas.service.LancamentoService;
 import com.maquirino.minhasfinancas.service.UsuarioService;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -25,7 +35,10 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -80,7 +93,7 @@ public class UsuarioResourceTest {
 
     @Test
     public void deveAutenticar() throws Exception {
-        when(service.autenticar(anyString(), any())).thenReturn(usuario);
+        when(service.autenticar(anyString(), any())).thenReturn(CompletableFuture.completedFuture(usuario));
 
         String json = objectMapper.writeValueAsString(loginDTO);
 
@@ -89,16 +102,21 @@ public class UsuarioResourceTest {
                 .contentType(JSON)
                 .content(json);
 
-        mvc.perform(request)
+        MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("id").value(usuario.getId()))
                 .andExpect(jsonPath("nome").value(usuario.getNome()))
-                .andExpect(jsonPath("email").value(usuario.getEmail()));
+                .andExpect(jsonPath("email").value(usuario.getEmail()))
+                .andExpect(jsonPath("token").isNotEmpty())
+                .andExpect(jsonPath("senha").doesNotExist());
     }
 
     @Test
     public void deveNaoAutenticar() throws Exception {
-        when(service.autenticar(anyString(), any())).thenThrow(ErroAutenticacao.class);
+        when(service.autenticar(anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ErroAutenticacao("Senha incorreta")));
 
         String json = objectMapper.writeValueAsString(loginDTO);
 
@@ -107,7 +125,28 @@ public class UsuarioResourceTest {
                 .contentType(JSON)
                 .content(json);
 
-        mvc.perform(request).andExpect(status().isBadRequest());
+        MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Senha incorreta"));
+    }
+
+    @Test
+    public void deveRecusarAutenticacaoComPoolDeSenhasCheio() throws Exception {
+        when(service.autenticar(anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException()));
+
+        String json = objectMapper.writeValueAsString(loginDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/autenticar"))
+                .contentType(JSON)
+                .content(json);
+
+        MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+        mvc.perform(asyncDispatch(result)).andExpect(status().isServiceUnavailable());
     }
 
     @Test
@@ -144,7 +183,7 @@ public class UsuarioResourceTest {
 
     @Test
     public void deveObterSaldo() throws Exception {
-        when(service.obterPorId(anyLong())).thenReturn(usuario);
+        when(service.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
         when(lancamentoService.obterSaldo(anyLong())).thenReturn(BigDecimal.TEN);
 
         String json = objectMapper.writeValueAsString(usuarioDTO);
@@ -159,6 +198,28 @@ public class UsuarioResourceTest {
                 .andExpect(content().string("10"));
     }
 
+    @Test
+    public void deveObterSaldoComEtagDaVersaoDoUsuario() throws Exception {
+        when(lancamentoService.obterVersaoUsuario(3L)).thenReturn(Optional.of(7L));
+        when(lancamentoService.obterSaldo(3L)).thenReturn(BigDecimal.TEN);
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/3/saldo")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-7\""));
+
+        verify(service, never()).obterPorId(anyLong());
+    }
+
+    @Test
+    public void deveResponderSaldoNaoModificado() throws Exception {
+        when(lancamentoService.obterVersaoUsuario(3L)).thenReturn(Optional.of(7L));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/3/saldo")).header(HttpHeaders.IF_NONE_MATCH, "\"3-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(lancamentoService, never()).obterSaldo(anyLong());
+    }
+
     @Test
     public void deveNaoObterSaldo() throws Exception {
         when(service.obterPorId(anyLong())).thenThrow(ErroAutenticacao.class);
@@ -172,4 +233,41 @@ public class UsuarioResourceTest {
 
         mvc.perform(request).andExpect(status().isNotFound());
     }
+
+    @Test
+    public void deveObterResumo() throws Exception {
+        when(service.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+        when(lancamentoService.obterResumo(3L, 2020, null)).thenReturn(List.of(ResumoMensal.builder()
+                .idUsuario(3L)
+                .ano(2020)
+                .mes(5)
+                .tipo(TipoLancamento.RECEITA)
+                .status(StatusLancamento.EFETIVADO)
+                .total(BigDecimal.TEN)
+                .quantidade(2L)
+                .build()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/3/resumo"))
+                .param("anoInicial", "2020");
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].mes").value(5))
+                .andExpect(jsonPath("$[0].total").value(10))
+                .andExpect(jsonPath("$[0].quantidade").value(2));
+    }
+
+    @Test
+    public void deveNaoObterResumoComPeriodoInvalido() throws Exception {
+        when(service.obterPorId(anyLong())).thenReturn(DadosUsuario.de(usuario));
+        when(lancamentoService.obterResumo(anyLong(), any(), any())).thenThrow(RegraNegocioException.class);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/3/resumo"))
+                .param("anoInicial", "2022")
+                .param("anoFinal", "2020");
+
+        mvc.perform(request).andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,214 @@
+package com.maquirino.minhasfinancas.carga;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga, executado somente com {@code -Dcarga=true}:
+ * <pre>
+ * mvn test -Dtest=CargaTest -Dcarga=true -Dcarga.usuarios=100 -Dcarga.lancamentos=20000 -DargLine=-Xmx4g
+ * </pre>
+ * {@code -Dcarga.modo=assincrono} executa no modo assíncrono de {@code ExecucaoConfig} e
+ * {@code -Dcarga.tomcat.threads} limita as threads do Tomcat para comparar os dois modos.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "minhasfinancas.execucao.modo=${carga.modo:bloqueante}",
+        "server.tomcat.threads.max=${carga.tomcat.threads:200}"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+public class CargaTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 10);
+    private static final int LANCAMENTOS_POR_USUARIO = Integer.getInteger("carga.lancamentos", 10000);
+    private static final int THREADS = Integer.getInteger("carga.threads", 8);
+    private static final int AQUECIMENTO_SEGUNDOS = Integer.getInteger("carga.aquecimento", 5);
+    private static final int DURACAO_SEGUNDOS = Integer.getInteger("carga.duracao", 30);
+    private static final int TAMANHO_BLOCO = 1000;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, Estatistica> estatisticas = new ConcurrentHashMap<>();
+    private final AtomicInteger erros = new AtomicInteger();
+    private List<Long> usuarios;
+    private List<Long> lancamentos;
+
+    @BeforeEach
+    public void semear() {
+        long inicio = System.nanoTime();
+        usuarios = new ArrayList<>(USUARIOS);
+        lancamentos = new ArrayList<>();
+
+        for (int u = 0; u < USUARIOS; u++) {
+            Usuario usuario = usuarioService.salvarUsuario(Usuario.builder()
+                    .nome("Carga " + u)
+                    .email("carga" + u + "@email.com")
+                    .senha("123")
+                    .build());
+            usuarios.add(usuario.getId());
+
+            List<Lancamento> bloco = new ArrayList<>(TAMANHO_BLOCO);
+            for (int i = 0; i < LANCAMENTOS_POR_USUARIO; i++) {
+                bloco.add(criarLancamento(usuario, i));
+                if (bloco.size() == TAMANHO_BLOCO || i == LANCAMENTOS_POR_USUARIO - 1) {
+                    lancamentoService.salvar(bloco).stream().limit(10).forEach(l -> lancamentos.add(l.getId()));
+                    bloco = new ArrayList<>(TAMANHO_BLOCO);
+                }
+            }
+        }
+
+        log.info("Carga semeada: {} usuarios, {} lancamentos em {} s", USUARIOS, lancamentoRepository.count(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio));
+    }
+
+    @Test
+    public void deveExecutarCargaMistaNosEndpoints() throws InterruptedException {
+        executar(AQUECIMENTO_SEGUNDOS);
+        estatisticas.clear();
+        erros.set(0);
+
+        executar(DURACAO_SEGUNDOS);
+
+        log.info(String.format("%-10s %10s %10s %10s %10s", "endpoint", "requisicoes", "req/s", "p50 ms", "p99 ms"));
+        estatisticas.forEach((endpoint, estatistica) -> log.info(String.format("%-10s %10d %10.1f %10.2f %10.2f",
+                endpoint, estatistica.total(), (double) estatistica.total() / DURACAO_SEGUNDOS,
+                estatistica.percentil(50), estatistica.percentil(99))));
+
+        assertEquals(0, erros.get());
+    }
+
+    private void executar(int segundos) throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < fim) {
+                    requisicao();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+    }
+
+    private void requisicao() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long usuario = usuarios.get(random.nextInt(usuarios.size()));
+        int sorteio = random.nextInt(100);
+
+        if (sorteio < 50) {
+            enviar("buscar", HttpRequest.newBuilder(uri("/api/lancamentos?usuario=" + usuario
+                    + "&ano=" + (2000 + random.nextInt(20)) + "&mes=" + (1 + random.nextInt(12)))).GET());
+        } else if (sorteio < 75) {
+            enviar("saldo", HttpRequest.newBuilder(uri("/api/usuarios/" + usuario + "/saldo")).GET());
+        } else if (sorteio < 90) {
+            String json = "{\"descricao\":\"Carga\",\"mes\":" + (1 + random.nextInt(12)) + ",\"ano\":2021,\"valor\":"
+                    + (1 + random.nextInt(500)) + ",\"tipo\":\"RECEITA\",\"usuario\":" + usuario + "}";
+            enviar("salvar", HttpRequest.newBuilder(uri("/api/lancamentos/salvar"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json)));
+        } else {
+            Long lancamento = lancamentos.get(random.nextInt(lancamentos.size()));
+            StatusLancamento status = StatusLancamento.values()[random.nextInt(StatusLancamento.values().length)];
+            enviar("status", HttpRequest.newBuilder(uri("/api/lancamentos/" + lancamento + "/atualizar/status"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}")));
+        }
+    }
+
+    private void enviar(String endpoint, HttpRequest.Builder request) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                erros.incrementAndGet();
+            }
+        } catch (Exception e) {
+            erros.incrementAndGet();
+        }
+        estatisticas.computeIfAbsent(endpoint, e -> new Estatistica()).registrar(System.nanoTime() - inicio);
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private static Lancamento criarLancamento(Usuario usuario, int i) {
+        return Lancamento.builder()
+                .usuario(usuario)
+                .descricao("Lancamento " + i)
+                .mes(i % 12 + 1)
+                .ano(2000 + i % 20)
+                .valor(BigDecimal.valueOf(i % 500 + 1))
+                .tipo(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                .status(StatusLancamento.PENDENTE)
+                .build();
+    }
+
+    private static class Estatistica {
+
+        private long[] latencias = new long[1024];
+        private int total;
+
+        synchronized void registrar(long nanos) {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = nanos;
+        }
+
+        synchronized int total() {
+            return total;
+        }
+
+        synchronized double percentil(int percentil) {
+            long[] ordenadas = Arrays.copyOf(latencias, total);
+            Arrays.sort(ordenadas);
+            int indice = Math.max(0, (int) Math.ceil(percentil / 100.0 * total) - 1);
+            return ordenadas[indice] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.service.ImportacaoService;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.TokenService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "minhasfinancas.token.obrigatorio=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AutenticacaoTokenFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @MockBean
+    private LancamentoService lancamentoService;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private ImportacaoService importacaoService;
+
+    private final Usuario usuario = Usuario.builder().id(1L).build();
+
+    @Test
+    void deveRecusarRequisicaoSemToken() throws Exception {
+        mvc.perform(get("/api/lancamentos").queryParam("usuario", "1"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Informe o token de autenticação."));
+
+        verify(lancamentoService, never()).buscar(any(), any(), any());
+    }
+
+    @Test
+    void deveRecusarTokenInvalido() throws Exception {
+        mvc.perform(get("/api/lancamentos").header(HttpHeaders.AUTHORIZATION, "Bearer invalido"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Token inválido"));
+    }
+
+    @Test
+    void deveBuscarComUsuarioDoTokenSemConsultarUsuario() throws Exception {
+        when(usuarioService.obterReferenciaAutenticada(1L)).thenReturn(usuario);
+        when(lancamentoService.buscar(any(), any(), any())).thenReturn(PaginaLancamento.builder().lancamentos(List.of()).build());
+
+        mvc.perform(get("/api/lancamentos").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(usuario)))
+                .andExpect(status().isOk());
+
+        verify(usuarioService).obterReferenciaAutenticada(1L);
+        verify(usuarioService, never()).obterReferencia(anyLong());
+        verify(usuarioService, never()).obterPorId(anyLong());
+    }
+
+    @Test
+    void deveRecusarUsuarioDiferenteDoToken() throws Exception {
+        mvc.perform(get("/api/lancamentos")
+                .queryParam("usuario", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(usuario)))
+                .andExpect(status().isForbidden());
+
+        verify(lancamentoService, never()).buscar(any(), any(), any());
+    }
+
+    @Test
+    void deveRecusarLancamentoDeOutroUsuario() throws Exception {
+        when(lancamentoService.obterDados(5L))
+                .thenReturn(new DadosLancamento(5L, "Descricao", 1, 2021, null, null, null, 0L, 2L));
+
+        mvc.perform(get("/api/lancamentos/5").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(usuario)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveLiberarRotasDeUsuarioSemToken() throws Exception {
+        mvc.perform(get("/api/usuarios/1/saldo"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,21 @@
+package com.maquirino.minhasfinancas.config;
+
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ContagemSql {
+
+    private ContagemSql() {
+    }
+
+    public static long contar(Executable execucao) throws Throwable {
+        long antes = ContadorSql.total();
+        execucao.execute();
+        return ContadorSql.total() - antes;
+    }
+
+    public static void assertQuantidadeSql(long esperado, Executable execucao) throws Throwable {
+        assertEquals(esperado, contar(execucao), "Quantidade de comandos SQL executados");
+    }
+}
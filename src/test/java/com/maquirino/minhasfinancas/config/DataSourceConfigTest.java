@@ -0,0 +1,184 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.api.dto.LancamentoDTO;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "minhasfinancas.datasource.replicas=" + DataSourceConfigTest.REPLICA,
+        "minhasfinancas.datasource.consulta-atraso=select 0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(DataSourceConfigTest.LeituraEscritaResource.class)
+class DataSourceConfigTest {
+
+    static final String PRIMARIA = "jdbc:h2:mem:db";
+    static final String REPLICA = "jdbc:h2:mem:replica-config;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Lê numa transação {@code readOnly} e escreve em seguida, na mesma requisição.
+     */
+    @RestController
+    static class LeituraEscritaResource {
+
+        @Autowired
+        private LancamentoService lancamentoService;
+
+        @PutMapping("/teste/lancamentos/{id}/efetivar")
+        public ResponseEntity efetivar(@PathVariable("id") Long id) {
+            Long versao = lancamentoService.obterDados(id).getVersao();
+            lancamentoService.atualizarStatus(id, StatusLancamento.EFETIVADO, versao, null);
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @Test
+    public void deveBuscarLancamentosNaReplica() throws Exception {
+        Usuario usuario = criarUsuario("replica-busca@email.com");
+        copiarParaReplica();
+
+        MvcResult resultado = mvc.perform(get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(dataSource instanceof LazyConnectionDataSourceProxy);
+        assertTrue(dataSource.isWrapperFor(RoteamentoDataSource.class));
+        assertEquals("replica-0", resultado.getRequest().getAttribute(RoteamentoDataSource.ATRIBUTO_REPLICA));
+    }
+
+    @Test
+    public void deveSalvarLancamentoNaPrimaria() throws Exception {
+        Usuario usuario = criarUsuario("replica-salvar@email.com");
+        LancamentoDTO lancamentoDTO = LancamentoDTO.builder()
+                .descricao("Descricao")
+                .mes(10)
+                .ano(2021)
+                .valor(BigDecimal.ONE)
+                .tipo(TipoLancamento.RECEITA)
+                .usuario(usuario.getId())
+                .build();
+
+        MvcResult resultado = mvc.perform(post("/api/lancamentos/salvar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lancamentoDTO)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        assertNull(resultado.getRequest().getAttribute(RoteamentoDataSource.ATRIBUTO_REPLICA));
+    }
+
+    @Test
+    public void deveEscreverNaPrimariaDepoisDeLerNaReplica() throws Exception {
+        Usuario usuario = criarUsuario("replica-ler-escrever@email.com");
+        Lancamento lancamento = lancamentoService.salvar(Lancamento.builder()
+                .descricao("Descricao")
+                .mes(10)
+                .ano(2021)
+                .valor(BigDecimal.ONE)
+                .tipo(TipoLancamento.RECEITA)
+                .usuario(usuario)
+                .build());
+        copiarParaReplica();
+
+        MvcResult resultado = mvc.perform(put("/teste/lancamentos/{id}/efetivar", lancamento.getId()))
+                .andExpect(status().isNoContent())
+                .andReturn();
+
+        assertEquals("replica-0", resultado.getRequest().getAttribute(RoteamentoDataSource.ATRIBUTO_REPLICA));
+        assertEquals("EFETIVADO", statusNoBanco(PRIMARIA, lancamento.getId()));
+        assertEquals("PENDENTE", statusNoBanco(REPLICA, lancamento.getId()));
+    }
+
+    private Usuario criarUsuario(String email) {
+        return usuarioService.salvarUsuario(Usuario.builder()
+                .nome("Replica")
+                .email(email)
+                .senha("123")
+                .build());
+    }
+
+    /**
+     * A réplica é outro banco em memória; recebe uma cópia da primária para que as escritas que
+     * chegarem nela por engano fiquem visíveis na comparação.
+     */
+    private static void copiarParaReplica() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primaria = DriverManager.getConnection(PRIMARIA, "sa", "sa");
+             Statement comando = primaria.createStatement();
+             ResultSet resultado = comando.executeQuery("script")) {
+            while (resultado.next()) {
+                script.add(resultado.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "sa");
+             Statement comando = replica.createStatement()) {
+            comando.execute("drop all objects");
+            for (String sql : script) {
+                comando.execute(sql);
+            }
+        }
+    }
+
+    private static String statusNoBanco(String url, Long idLancamento) throws SQLException {
+        try (Connection conexao = DriverManager.getConnection(url, "sa", "sa");
+             PreparedStatement comando = conexao.prepareStatement("select status from financas.lancamento where id = ?")) {
+            comando.setLong(1, idLancamento);
+            try (ResultSet resultado = comando.executeQuery()) {
+                resultado.next();
+                return resultado.getString(1);
+            }
+        }
+    }
+}
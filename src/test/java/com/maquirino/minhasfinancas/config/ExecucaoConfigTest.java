@@ -0,0 +1,129 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.ImportacaoService;
+import com.maquirino.minhasfinancas.service.LancamentoService;
+import com.maquirino.minhasfinancas.service.TokenService;
+import com.maquirino.minhasfinancas.service.UsuarioService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "minhasfinancas.execucao.modo=assincrono")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExecucaoConfigTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @MockBean
+    private LancamentoService lancamentoService;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Usuario usuario = Usuario.builder().id(1L).build();
+
+    @Test
+    void deveExecutarHandlerNoPoolDeRequisicoes() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(lancamentoService.obterDados(5L)).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return new DadosLancamento(5L, "Descricao", 1, 2021, null, null, null, 0L, 1L);
+        });
+
+        MvcResult result = mvc.perform(get("/api/lancamentos/5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(5L));
+        assertTrue(thread.get().startsWith("requisicao-"));
+    }
+
+    @Test
+    void deveContarSqlDoHandlerNoPoolDeRequisicoes() throws Exception {
+        when(lancamentoService.obterDados(6L)).thenAnswer(invocation -> {
+            usuarioRepository.existsByEmail("execucao@email.com");
+            return new DadosLancamento(6L, "Descricao", 1, 2021, null, null, null, 0L, 1L);
+        });
+        double antes = consultasRegistradas();
+
+        MvcResult result = mvc.perform(get("/api/lancamentos/6"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertTrue(consultasRegistradas() - antes > 0);
+    }
+
+    @Test
+    void deveManterUsuarioDoTokenNoPoolDeRequisicoes() throws Exception {
+        when(usuarioService.obterReferenciaAutenticada(1L)).thenReturn(usuario);
+        when(lancamentoService.buscar(any(), any(), any())).thenReturn(PaginaLancamento.builder().lancamentos(List.of()).build());
+
+        MvcResult result = mvc.perform(get("/api/lancamentos")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(usuario)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        verify(usuarioService).obterReferenciaAutenticada(1L);
+        verify(usuarioService, never()).obterReferencia(anyLong());
+    }
+
+    @Test
+    void deveManterRespostaDeErroNoPoolDeRequisicoes() throws Exception {
+        MvcResult result = mvc.perform(get("/api/lancamentos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result)).andExpect(status().isBadRequest());
+    }
+
+    private double consultasRegistradas() {
+        DistributionSummary consultas = meterRegistry.find(ContadorSqlFilter.METRICA)
+                .tag("uri", "/api/lancamentos/{id}")
+                .summary();
+        return consultas == null ? 0 : consultas.totalAmount();
+    }
+}
@@ -0,0 +1,71 @@
+package com.maquirino.minhasfinancas.config;
+
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Test
+    void deveMedirMetodosDosRepositorios() {
+        long antes = invocacoes("LancamentoRepository", "obterTotaisPorUsuario");
+
+        lancamentoRepository.obterTotaisPorUsuario(1L);
+        lancamentoRepository.obterTotaisPorUsuario(2L);
+
+        assertEquals(antes + 2, invocacoes("LancamentoRepository", "obterTotaisPorUsuario"));
+    }
+
+    @Test
+    void deveExporMetricasNoFormatoPrometheus() throws Exception {
+        usuarioRepository.existsByEmail("metricas@test.com.br");
+
+        assertNotNull(meterRegistry.find("hibernate.statements").meter());
+        assertNotNull(meterRegistry.find("hikaricp.connections").meter());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+
+    private long invocacoes(String repositorio, String metodo) {
+        Timer timer = meterRegistry.find(MetricsConfig.METRICA_REPOSITORIO)
+                .tag("repository", repositorio)
+                .tag("method", metodo)
+                .tag("state", "SUCCESS")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,150 @@
+package com.maquirino.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoteamentoDataSourceTest {
+
+    private DriverManagerDataSource primaria;
+    private DriverManagerDataSource replica0;
+    private DriverManagerDataSource replica1;
+    private RoteamentoDataSource roteamento;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primaria = banco("primaria", 0);
+        replica0 = banco("replica0", 0);
+        replica1 = banco("replica1", 0);
+        roteamento = new RoteamentoDataSource(primaria, List.of(replica0, replica1),
+                "select segundos from atraso", Duration.ofSeconds(5));
+        roteamento.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void deveEnviarEscritasParaPrimaria() throws SQLException {
+        assertEquals("primaria", origem());
+        assertEquals("primaria", origem());
+    }
+
+    @Test
+    public void deveAlternarLeiturasEntreReplicas() throws SQLException {
+        leitura("LancamentoServiceImpl.buscar");
+
+        assertEquals("replica0", origem());
+        assertEquals("replica1", origem());
+        assertEquals("replica0", origem());
+    }
+
+    @Test
+    public void deveManterLeiturasDoRepositorioNaPrimaria() throws SQLException {
+        leitura("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+
+        assertEquals("primaria", origem());
+    }
+
+    @Test
+    public void deveFixarReplicaDuranteARequisicao() throws SQLException {
+        leitura("LancamentoServiceImpl.buscar");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals("replica0", origem());
+        assertEquals("replica0", origem());
+    }
+
+    @Test
+    public void deveTirarReplicaAtrasadaDoRodizio() throws SQLException {
+        atualizarAtraso(replica0, 30);
+        roteamento.verificarAtraso();
+        leitura("LancamentoServiceImpl.buscar");
+
+        assertEquals(Set.of("replica-1"), roteamento.getReplicasDisponiveis());
+        assertEquals("replica1", origem());
+        assertEquals("replica1", origem());
+
+        atualizarAtraso(replica0, 0);
+        roteamento.verificarAtraso();
+
+        assertEquals(Set.of("replica-0", "replica-1"), roteamento.getReplicasDisponiveis());
+    }
+
+    @Test
+    public void deveUsarPrimariaComTodasAsReplicasAtrasadas() throws SQLException {
+        atualizarAtraso(replica0, 30);
+        atualizarAtraso(replica1, 30);
+        roteamento.verificarAtraso();
+        leitura("LancamentoServiceImpl.buscar");
+
+        assertEquals("primaria", origem());
+    }
+
+    @Test
+    public void deveSeguirNaPrimariaQuandoReplicaFixadaSaiDoRodizio() throws SQLException {
+        leitura("LancamentoServiceImpl.buscar");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica0", origem());
+
+        atualizarAtraso(replica0, 30);
+        roteamento.verificarAtraso();
+
+        assertEquals("primaria", origem());
+    }
+
+    private static void leitura(String transacao) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        TransactionSynchronizationManager.setCurrentTransactionName(transacao);
+    }
+
+    private String origem() throws SQLException {
+        try (Connection conexao = roteamento.getConnection();
+             Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery("select nome from origem")) {
+            resultado.next();
+            return resultado.getString(1);
+        }
+    }
+
+    private static DriverManagerDataSource banco(String nome, int atraso) throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:roteamento-" + nome + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+        executar(dataSource, "create table if not exists origem (nome varchar(20))");
+        executar(dataSource, "delete from origem");
+        executar(dataSource, "insert into origem values ('" + nome + "')");
+        executar(dataSource, "create table if not exists atraso (segundos numeric(10, 3))");
+        executar(dataSource, "delete from atraso");
+        executar(dataSource, "insert into atraso values (" + atraso + ")");
+        return dataSource;
+    }
+
+    private static void atualizarAtraso(DriverManagerDataSource dataSource, int segundos) throws SQLException {
+        executar(dataSource, "update atraso set segundos = " + segundos);
+    }
+
+    private static void executar(DriverManagerDataSource dataSource, String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             Statement comando = conexao.createStatement()) {
+            comando.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.BootstrapWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+@BootstrapWith(SpringBootTestContextBootstrapper.class)
+class AlteracaoUsuarioRepositoryTest {
+
+    @Autowired
+    private AlteracaoUsuarioRepository repository;
+
+    @Autowired
+    private LancamentoExcluidoRepository excluidoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void deveIncrementarContadorDoUsuario() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(usuario.getId()).alteracao(4L).build());
+        entityManager.flush();
+
+        int alterados = repository.incrementar(usuario.getId());
+
+        assertEquals(1, alterados);
+        assertEquals(Optional.of(5L), repository.obterAlteracao(usuario.getId()));
+        assertEquals(0, repository.incrementar(99L));
+    }
+
+    @Test
+    void deveBuscarExcluidosDepoisDoCursor() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        Usuario outroUsuario = entityManager.persist(criarUsuario());
+        LocalDateTime agora = LocalDateTime.now();
+        entityManager.persist(excluido(1L, usuario, 2L, agora));
+        entityManager.persist(excluido(2L, usuario, 4L, agora));
+        entityManager.persist(excluido(3L, usuario, 3L, agora));
+        entityManager.persist(excluido(4L, usuario, 6L, agora));
+        entityManager.persist(excluido(5L, outroUsuario, 3L, agora));
+        entityManager.flush();
+
+        List<LancamentoExcluido> excluidos = excluidoRepository.buscarExcluidos(usuario.getId(), 2L, 1L, 4L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L, 2L), excluidos.stream().map(LancamentoExcluido::getIdLancamento).collect(Collectors.toList()));
+        assertEquals(List.of(3L), excluidoRepository.buscarExcluidos(usuario.getId(), 2L, 1L, 4L, PageRequest.of(0, 1))
+                .stream().map(LancamentoExcluido::getIdLancamento).collect(Collectors.toList()));
+    }
+
+    @Test
+    void deveExpurgarExcluidosForaDaRetencao() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        Usuario outroUsuario = entityManager.persist(criarUsuario());
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(usuario.getId()).alteracao(6L).expurgado(0L).build());
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(outroUsuario.getId()).alteracao(3L).expurgado(0L).build());
+        LocalDateTime limite = LocalDateTime.now().minusDays(30);
+        entityManager.persist(excluido(1L, usuario, 2L, limite.minusDays(2)));
+        entityManager.persist(excluido(2L, usuario, 4L, limite.minusDays(1)));
+        entityManager.persist(excluido(3L, usuario, 6L, limite.plusDays(1)));
+        entityManager.persist(excluido(4L, outroUsuario, 3L, limite.plusDays(1)));
+        entityManager.flush();
+
+        repository.expurgarAte(limite);
+        int excluidos = excluidoRepository.excluirAte(limite);
+        entityManager.clear();
+
+        assertEquals(2, excluidos);
+        assertEquals(4L, repository.findById(usuario.getId()).orElseThrow().getExpurgado());
+        assertEquals(0L, repository.findById(outroUsuario.getId()).orElseThrow().getExpurgado());
+        assertFalse(excluidoRepository.existsById(2L));
+        assertTrue(excluidoRepository.existsById(3L));
+    }
+
+    private static LancamentoExcluido excluido(Long idLancamento, Usuario usuario, Long alteracao, LocalDateTime data) {
+        return LancamentoExcluido.builder()
+                .idLancamento(idLancamento)
+                .idUsuario(usuario.getId())
+                .alteracao(alteracao)
+                .dataExclusao(data)
+                .build();
+    }
+
+    private static Usuario criarUsuario() {
+        return Usuario.builder()
+                .nome("Test")
+                .senha("123")
+                .email("a@aa.com")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.BootstrapWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+@BootstrapWith(SpringBootTestContextBootstrapper.class)
+class EventoLancamentoRepositoryTest {
+
+    @Autowired
+    private EventoLancamentoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void deveObterPendentesEmOrdemDeCriacao() {
+        repository.deleteAll();
+        EventoLancamento primeiro = entityManager.persist(criarEvento(1L, null));
+        entityManager.persist(criarEvento(2L, LocalDateTime.now()));
+        EventoLancamento terceiro = entityManager.persist(criarEvento(3L, null));
+        EventoLancamento quarto = entityManager.persist(criarEvento(4L, null));
+        entityManager.flush();
+
+        List<EventoLancamento> pendentes = repository.obterPendentes(PageRequest.of(0, 2));
+
+        assertEquals(List.of(primeiro.getId(), terceiro.getId()),
+                pendentes.stream().map(EventoLancamento::getId).collect(Collectors.toList()));
+        assertNull(pendentes.get(0).getDataPublicacao());
+        assertEquals(3, repository.obterPendentes(PageRequest.of(0, 10)).size());
+        assertEquals(quarto.getIdLancamento(), repository.obterPendentes(PageRequest.of(0, 10)).get(2).getIdLancamento());
+    }
+
+    @Test
+    void deveMarcarPublicadosEExcluirAntigos() {
+        repository.deleteAll();
+        EventoLancamento antigo = entityManager.persist(criarEvento(1L, LocalDateTime.now().minusDays(10)));
+        EventoLancamento pendente = entityManager.persist(criarEvento(2L, null));
+        entityManager.flush();
+
+        int marcados = repository.marcarPublicados(List.of(pendente.getId()), LocalDateTime.now());
+        int excluidos = repository.excluirPublicadosAte(LocalDateTime.now().minusDays(7));
+        entityManager.clear();
+
+        assertEquals(1, marcados);
+        assertEquals(1, excluidos);
+        assertNull(entityManager.find(EventoLancamento.class, antigo.getId()));
+        assertEquals(0, repository.obterPendentes(PageRequest.of(0, 10)).size());
+    }
+
+    private static EventoLancamento criarEvento(Long idLancamento, LocalDateTime dataPublicacao) {
+        return EventoLancamento.builder()
+                .idLancamento(idLancamento)
+                .idUsuario(1L)
+                .tipo(TipoEventoLancamento.CRIADO)
+                .dados("{\"id\":" + idLancamento + "}")
+                .dataCriacao(LocalDateTime.now())
+                .dataPublicacao(dataPublicacao)
+                .build();
+    }
+}
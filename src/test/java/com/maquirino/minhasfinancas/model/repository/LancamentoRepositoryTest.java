@@ -1,11 +1,24 @@
 package com.maquirino.minhasfinancas.model.repository;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.config.JacksonConfig;
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
 import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -13,10 +26,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.BootstrapWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -32,6 +47,8 @@ class LancamentoRepositoryTest {
     @Autowired
     private LancamentoRepository repository;
 
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JacksonConfig().hibernate5Module());
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -79,6 +96,266 @@ class LancamentoRepositoryTest {
         assertEquals(persist, updated);
     }
 
+    @Test
+    void deveObterTotaisDoUsuarioEmUmaConsulta() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).valor(BigDecimal.TEN).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).valor(BigDecimal.ONE).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).tipo(TipoLancamento.DESPESA).build());
+
+        Optional<TotaisLancamento> totais = repository.obterTotaisPorUsuario(usuario.getId());
+
+        assertTrue(totais.isPresent());
+        assertEquals(usuario.getId(), totais.get().getIdUsuario());
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(totais.get().getReceitas()));
+        assertEquals(0, BigDecimal.ONE.compareTo(totais.get().getDespesas()));
+    }
+
+    @Test
+    void deveNaoObterTotaisDeUsuarioSemLancamentos() {
+        Optional<TotaisLancamento> totais = repository.obterTotaisPorUsuario(99L);
+
+        assertTrue(totais.isEmpty());
+    }
+
+    @Test
+    void deveObterTotaisDoResumoDoUsuario() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Usuario outroUsuario = entityManager.persist(criarLancamento().getUsuario());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).valor(BigDecimal.TEN).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).status(StatusLancamento.EFETIVADO).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(outroUsuario).build());
+
+        List<TotaisResumo> totais = repository.obterTotaisResumo(usuario.getId());
+
+        assertEquals(2, totais.size());
+        TotaisResumo pendentes = totais.stream().filter(t -> t.getStatus() == StatusLancamento.PENDENTE).findFirst().orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(pendentes.getTotal()));
+        assertEquals(2L, pendentes.getQuantidade());
+    }
+
+    @Test
+    void deveBuscarPaginaOrdenadaPorAnoMesEId() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento dezembro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Lancamento janeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).mes(1).build());
+        Lancamento proximoAno = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).ano(2022).mes(1).build());
+        Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+
+        List<DadosLancamento> primeiraPagina = repository.buscarPagina(filtro, null, 2);
+        List<DadosLancamento> segundaPagina = repository.buscarPagina(filtro, CursorLancamento.de(primeiraPagina.get(1)), 2);
+
+        assertEquals(List.of(janeiro.getId(), dezembro.getId()), ids(primeiraPagina));
+        assertEquals(List.of(proximoAno.getId()), ids(segundaPagina));
+    }
+
+    @Test
+    void deveBuscarPaginaFiltrandoDescricaoSemDiferenciarMaiusculas() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento aluguel = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).descricao("Aluguel Casa").build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).descricao("Mercado").build());
+
+        List<DadosLancamento> resultado = repository.buscarPagina(
+                Lancamento.builder().usuario(usuario).descricao("aluguel").build(), null, 10);
+
+        assertEquals(List.of(aluguel.getId()), ids(resultado));
+    }
+
+    @Test
+    void deveBuscarPaginaTratandoCuringasDaDescricaoComoTexto() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento desconto = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).descricao("Desconto 10%").build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).descricao("Desconto 100").build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).descricao("Conta_luz").build());
+
+        List<DadosLancamento> porcentagem = repository.buscarPagina(
+                Lancamento.builder().usuario(usuario).descricao("10%").build(), null, 10);
+        List<DadosLancamento> sublinhado = repository.buscarPagina(
+                Lancamento.builder().usuario(usuario).descricao("o_t").build(), null, 10);
+
+        assertEquals(List.of(desconto.getId()), ids(porcentagem));
+        assertTrue(sublinhado.isEmpty());
+    }
+
+    @Test
+    void deveObterStreamDeLancamentosDoUsuario() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento primeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Lancamento segundo = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Usuario outroUsuario = entityManager.persist(criarLancamento().getUsuario());
+        entityManager.persist(criarLancamento().toBuilder().usuario(outroUsuario).build());
+
+        try (Stream<Lancamento> lancamentos = repository.streamPorUsuario(usuario.getId())) {
+            assertEquals(List.of(primeiro.getId(), segundo.getId()),
+                    lancamentos.map(Lancamento::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void deveSerializarUsuarioDoLancamentoSempreComoId() throws Exception {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento persist = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Lancamento lancamento = repository.findById(persist.getId()).get();
+        JsonNode comProxy = objectMapper.valueToTree(lancamento);
+        assertNotNull(lancamento.toString());
+        assertEquals(lancamento, lancamento.toBuilder().build());
+        assertFalse(Hibernate.isInitialized(lancamento.getUsuario()));
+
+        Hibernate.initialize(lancamento.getUsuario());
+        JsonNode carregado = objectMapper.valueToTree(lancamento);
+
+        assertEquals(usuario.getId(), comProxy.get("usuario").asLong());
+        assertEquals(comProxy, carregado);
+    }
+
+    @Test
+    void deveCarregarUsuarioDoLancamentoSobDemanda() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento persist = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Lancamento lancamento = repository.findById(persist.getId()).get();
+
+        assertFalse(Hibernate.isInitialized(lancamento.getUsuario()));
+        assertEquals(usuario.getId(), lancamento.getUsuario().getId());
+        assertFalse(Hibernate.isInitialized(lancamento.getUsuario()));
+    }
+
+    @Test
+    void deveAtualizarStatusNaVersaoComProximaAlteracaoDoUsuario() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(usuario.getId()).alteracao(4L).expurgado(0L).build());
+        Lancamento lancamento = entityManager.persistFlushFind(criarLancamento().toBuilder().usuario(usuario).build());
+        Long versao = lancamento.getVersao();
+
+        int desatualizado = repository.atualizarStatus(lancamento.getId(), usuario.getId(), StatusLancamento.EFETIVADO, versao + 1);
+        int alheio = repository.atualizarStatus(lancamento.getId(), usuario.getId() + 1, StatusLancamento.EFETIVADO, versao);
+        int alterados = repository.atualizarStatus(lancamento.getId(), usuario.getId(), StatusLancamento.EFETIVADO, versao);
+        int repetido = repository.atualizarStatus(lancamento.getId(), usuario.getId(), StatusLancamento.EFETIVADO, versao + 1);
+        entityManager.clear();
+
+        assertEquals(0, desatualizado);
+        assertEquals(0, alheio);
+        assertEquals(1, alterados);
+        assertEquals(0, repetido);
+        Lancamento atualizado = entityManager.find(Lancamento.class, lancamento.getId());
+        assertEquals(versao + 1, atualizado.getVersao());
+        assertEquals(StatusLancamento.EFETIVADO, atualizado.getStatus());
+        assertEquals(5L, atualizado.getAlteracao());
+        assertEquals(4L, entityManager.find(AlteracaoUsuario.class, usuario.getId()).getAlteracao());
+    }
+
+    @Test
+    void deveAtualizarStatusEmLoteApenasDoUsuario() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Usuario outroUsuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento primeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Lancamento segundo = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Lancamento alheio = entityManager.persist(criarLancamento().toBuilder().usuario(outroUsuario).build());
+        entityManager.flush();
+
+        Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+        int alterados = repository.atualizarStatus(filtro, List.of(primeiro.getId(), alheio.getId()), StatusLancamento.CANCELADO);
+        entityManager.clear();
+
+        assertEquals(1, alterados);
+        assertEquals(StatusLancamento.CANCELADO, entityManager.find(Lancamento.class, primeiro.getId()).getStatus());
+        assertEquals(StatusLancamento.PENDENTE, entityManager.find(Lancamento.class, segundo.getId()).getStatus());
+        assertEquals(StatusLancamento.PENDENTE, entityManager.find(Lancamento.class, alheio.getId()).getStatus());
+    }
+
+    @Test
+    void deveAtualizarStatusEmLotePorFiltro() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento dezembro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        Lancamento janeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).mes(1).build());
+        Lancamento cancelado = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).status(StatusLancamento.CANCELADO).build());
+        entityManager.persist(AlteracaoUsuario.builder().idUsuario(usuario.getId()).alteracao(7L).expurgado(0L).build());
+        entityManager.flush();
+
+        Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2021).mes(12).status(StatusLancamento.PENDENTE).build();
+        int alterados = repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+        entityManager.clear();
+
+        assertEquals(1, alterados);
+        Lancamento efetivado = entityManager.find(Lancamento.class, dezembro.getId());
+        assertEquals(StatusLancamento.EFETIVADO, efetivado.getStatus());
+        assertEquals(dezembro.getVersao() + 1, efetivado.getVersao());
+        assertEquals(8L, efetivado.getAlteracao());
+        assertEquals(StatusLancamento.PENDENTE, entityManager.find(Lancamento.class, janeiro.getId()).getStatus());
+        assertEquals(StatusLancamento.CANCELADO, entityManager.find(Lancamento.class, cancelado.getId()).getStatus());
+    }
+
+    @Test
+    void deveObterResumoDosLancamentosQueSeraoAtualizados() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento primeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).valor(BigDecimal.TEN).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).status(StatusLancamento.EFETIVADO).build());
+        entityManager.flush();
+
+        Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2021).build();
+        List<TotaisResumo> agrupados = repository.obterResumoParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO);
+        List<DadosLancamento> dados = repository.obterDadosParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO);
+        Optional<DadosLancamento> individual = repository.obterDados(primeiro.getId());
+
+        assertEquals(1, agrupados.size());
+        assertEquals(StatusLancamento.PENDENTE, agrupados.get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(agrupados.get(0).getTotal()));
+        assertEquals(2L, agrupados.get(0).getQuantidade());
+        assertEquals(2, dados.size());
+        assertEquals(primeiro.getId(), dados.get(0).getId());
+        assertEquals(0, BigDecimal.TEN.compareTo(individual.get().getValor()));
+        assertEquals(primeiro.getVersao(), individual.get().getVersao());
+        assertEquals(usuario.getId(), individual.get().getUsuario());
+    }
+
+    @Test
+    void deveObterDadosSemCarregarUsuario() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento lancamento = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        DadosLancamento dados = repository.obterDados(lancamento.getId()).get();
+
+        assertEquals(lancamento.getId(), dados.getId());
+        assertEquals(lancamento.getDescricao(), dados.getDescricao());
+        assertEquals(0, lancamento.getValor().compareTo(dados.getValor()));
+        assertEquals(lancamento.getVersao(), dados.getVersao());
+        assertEquals(usuario.getId(), dados.getUsuario());
+        assertTrue(repository.obterDados(-1L).isEmpty());
+    }
+
+    @Test
+    void deveBuscarAlteracoesDoUsuarioAposOCursorAteOContador() {
+        Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+        Usuario outroUsuario = entityManager.persist(criarLancamento().getUsuario());
+        Lancamento antigo = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).alteracao(1L).build());
+        Lancamento primeiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).alteracao(2L).build());
+        Lancamento segundo = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).alteracao(2L).build());
+        Lancamento terceiro = entityManager.persist(criarLancamento().toBuilder().usuario(usuario).alteracao(3L).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(usuario).alteracao(4L).build());
+        entityManager.persist(criarLancamento().toBuilder().usuario(outroUsuario).alteracao(2L).build());
+        entityManager.flush();
+
+        List<Lancamento> alteracoes = repository.buscarAlteracoes(usuario.getId(), 1L, antigo.getId(), 3L, PageRequest.of(0, 10));
+        List<Lancamento> aposPrimeiro = repository.buscarAlteracoes(usuario.getId(), 2L, primeiro.getId(), 3L, PageRequest.of(0, 1));
+
+        assertEquals(List.of(primeiro.getId(), segundo.getId(), terceiro.getId()),
+                alteracoes.stream().map(Lancamento::getId).collect(Collectors.toList()));
+        assertEquals(List.of(segundo.getId()), aposPrimeiro.stream().map(Lancamento::getId).collect(Collectors.toList()));
+    }
+
+    private static List<Long> ids(List<DadosLancamento> lancamentos) {
+        return lancamentos.stream().map(DadosLancamento::getId).collect(Collectors.toList());
+    }
+
     private static Lancamento criarLancamento() {
         return Lancamento.builder()
                 .usuario(Usuario.builder()
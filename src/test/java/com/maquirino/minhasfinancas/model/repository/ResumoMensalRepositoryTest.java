@@ -0,0 +1,92 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.BootstrapWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+@BootstrapWith(SpringBootTestContextBootstrapper.class)
+class ResumoMensalRepositoryTest {
+
+    @Autowired
+    private ResumoMensalRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void deveAcumularValoresNoResumo() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        ResumoMensal resumo = entityManager.persist(ResumoMensal.builder()
+                .idUsuario(usuario.getId())
+                .ano(2021)
+                .mes(1)
+                .tipo(TipoLancamento.RECEITA)
+                .status(StatusLancamento.PENDENTE)
+                .total(BigDecimal.TEN)
+                .quantidade(1L)
+                .build());
+        entityManager.flush();
+
+        int alterados = repository.acumular(usuario.getId(), 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                BigDecimal.ONE, 1L);
+        int semResumo = repository.acumular(usuario.getId(), 2021, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                BigDecimal.ONE, 1L);
+        entityManager.clear();
+
+        ResumoMensal atualizado = entityManager.find(ResumoMensal.class, resumo.getId());
+        assertEquals(1, alterados);
+        assertEquals(0, semResumo);
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(atualizado.getTotal()));
+        assertEquals(2L, atualizado.getQuantidade());
+    }
+
+    @Test
+    void deveObterTodoOResumoDoUsuario() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        Usuario outroUsuario = entityManager.persist(criarUsuario());
+        ResumoMensal resumo = ResumoMensal.builder()
+                .idUsuario(usuario.getId())
+                .ano(2021)
+                .mes(3)
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .total(BigDecimal.ZERO)
+                .quantidade(0L)
+                .build();
+        entityManager.persist(resumo.toBuilder().build());
+        entityManager.persist(resumo.toBuilder().ano(1990).build());
+        entityManager.persist(resumo.toBuilder().idUsuario(outroUsuario.getId()).build());
+        entityManager.flush();
+
+        List<ResumoMensal> encontrados = repository.findByIdUsuario(usuario.getId());
+
+        assertEquals(2, encontrados.size());
+    }
+
+    private static Usuario criarUsuario() {
+        return Usuario.builder()
+                .nome("Test")
+                .senha("123")
+                .email("a@aa.com")
+                .build();
+    }
+}
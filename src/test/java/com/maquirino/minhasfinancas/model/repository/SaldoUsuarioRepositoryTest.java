@@ -0,0 +1,64 @@
+package com.maquirino.minhasfinancas.model.repository;
+
+import com.maquirino.minhasfinancas.model.entity.SaldoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.BootstrapWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+@BootstrapWith(SpringBootTestContextBootstrapper.class)
+class SaldoUsuarioRepositoryTest {
+
+    @Autowired
+    private SaldoUsuarioRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void deveAcumularValoresNoSaldo() {
+        Usuario usuario = entityManager.persist(criarUsuario());
+        entityManager.persist(SaldoUsuario.builder()
+                .idUsuario(usuario.getId())
+                .receitas(BigDecimal.TEN)
+                .despesas(BigDecimal.ZERO)
+                .build());
+        entityManager.flush();
+
+        int alterados = repository.acumular(usuario.getId(), BigDecimal.ONE, BigDecimal.valueOf(3));
+        entityManager.clear();
+
+        SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+        assertEquals(1, alterados);
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(saldo.getSaldo()));
+    }
+
+    @Test
+    void deveNaoAcumularSemSaldo() {
+        int alterados = repository.acumular(99L, BigDecimal.ONE, BigDecimal.ONE);
+
+        assertEquals(0, alterados);
+    }
+
+    private static Usuario criarUsuario() {
+        return Usuario.builder()
+                .nome("Test")
+                .senha("123")
+                .email("a@aa.com")
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maquirino.minhasfinancas.model.entity.EventoLancamento;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.repository.EventoLancamentoRepository;
+import com.maquirino.minhasfinancas.service.impl.EventoLancamentoServiceImpl;
+import com.maquirino.minhasfinancas.service.impl.PublicadorEventosArquivo;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventoLancamentoServiceTest {
+
+    @InjectMocks
+    private EventoLancamentoServiceImpl service;
+
+    @Mock
+    private EventoLancamentoRepository repository;
+
+    @Mock
+    private PublicadorEventos publicador;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final DadosLancamento dados = new DadosLancamento(7L, "Mercado", 1, 2021, BigDecimal.TEN,
+            TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 0L, 3L);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveRegistrarEventoComDadosDoLancamento() throws Exception {
+        service.registrar(TipoEventoLancamento.CRIADO, List.of(dados));
+
+        ArgumentCaptor<List<EventoLancamento>> eventos = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(eventos.capture());
+        EventoLancamento evento = eventos.getValue().get(0);
+        assertEquals(7L, evento.getIdLancamento());
+        assertEquals(3L, evento.getIdUsuario());
+        assertEquals(TipoEventoLancamento.CRIADO, evento.getTipo());
+        assertEquals("Mercado", objectMapper.readTree(evento.getDados()).get("descricao").asText());
+    }
+
+    @Test
+    public void devePublicarLotesAteEsvaziarPendentes() {
+        ReflectionTestUtils.setField(service, "tamanhoLote", 2);
+        when(repository.obterPendentes(any(Pageable.class)))
+                .thenReturn(eventos(1, 2))
+                .thenReturn(eventos(3, 3));
+
+        assertEquals(3, service.publicar());
+
+        verify(publicador, times(2)).publicar(anyList());
+        verify(repository).marcarPublicados(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(repository).marcarPublicados(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void deveManterPendentesQuandoPublicacaoFalha() {
+        when(repository.obterPendentes(any(Pageable.class))).thenReturn(eventos(1, 2));
+        doThrow(new IllegalStateException("indisponivel")).when(publicador).publicar(anyList());
+
+        assertThrows(IllegalStateException.class, () -> service.publicar());
+
+        verify(repository, never()).marcarPublicados(any(), any(LocalDateTime.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void deveGravarEventosPublicadosEmNdjson(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("eventos/lancamentos.ndjson");
+        PublicadorEventosArquivo publicadorArquivo = new PublicadorEventosArquivo(objectMapper, arquivo.toString());
+
+        publicadorArquivo.publicar(eventos(1, 2));
+        publicadorArquivo.publicar(eventos(3, 3));
+
+        List<String> linhas = Files.readAllLines(arquivo);
+        assertEquals(3, linhas.size());
+        assertEquals(3L, objectMapper.readTree(linhas.get(2)).get("id").asLong());
+        assertTrue(objectMapper.readTree(linhas.get(0)).get("dados").isObject());
+    }
+
+    private static List<EventoLancamento> eventos(long primeiro, long ultimo) {
+        return LongStream.rangeClosed(primeiro, ultimo)
+                .mapToObj(id -> EventoLancamento.builder()
+                        .id(id)
+                        .idLancamento(id)
+                        .idUsuario(1L)
+                        .tipo(TipoEventoLancamento.CRIADO)
+                        .dados("{\"id\":" + id + "}")
+                        .dataCriacao(LocalDateTime.now())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,219 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.exception.ImportacaoInterrompidaException;
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.service.impl.ImportacaoServiceImpl;
+import com.maquirino.minhasfinancas.service.impl.LancamentoServiceImpl;
+import com.maquirino.minhasfinancas.service.importacao.FormatoExtrato;
+import com.maquirino.minhasfinancas.service.importacao.ResultadoImportacao;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacaoServiceTest {
+
+    @InjectMocks
+    private ImportacaoServiceImpl service;
+
+    @Mock
+    private LancamentoService lancamentoService;
+
+    private Usuario usuario;
+
+    private List<List<Lancamento>> blocos;
+
+    @BeforeEach
+    void setUp() {
+        usuario = Usuario.builder().id(1L).build();
+        blocos = new ArrayList<>();
+        doAnswer(invocation -> {
+            Lancamento lancamento = invocation.getArgument(0);
+            new LancamentoServiceImpl().validar(lancamento);
+            return null;
+        }).when(lancamentoService).validar(any(Lancamento.class));
+        doAnswer(invocation -> {
+            List<Lancamento> bloco = invocation.getArgument(0);
+            blocos.add(new ArrayList<>(bloco));
+            return bloco;
+        }).when(lancamentoService).salvar(anyList());
+    }
+
+    @Test
+    void deveImportarCsvComErrosPorLinha() {
+        String csv = "data;descricao;valor\n"
+                + "2021-01-15;Salário;1.500,00\n"
+                + "20/02/2021;\"Mercado; feira\";-120.50\n"
+                + "2021-13-01;Data inválida;10\n"
+                + "2021-03-01;;10\n"
+                + "2021-03-02;Ajuste;5;DESPESA\n";
+
+        ResultadoImportacao resultado = service.importar(entrada(csv), FormatoExtrato.CSV, usuario);
+
+        assertEquals(6, resultado.getLinhasLidas());
+        assertEquals(3, resultado.getImportados());
+        assertEquals(2, resultado.getTotalErros());
+        assertEquals(List.of(4, 5), List.of(resultado.getErros().get(0).getLinha(), resultado.getErros().get(1).getLinha()));
+
+        List<Lancamento> importados = blocos.get(0);
+        assertEquals(new BigDecimal("1500.00"), importados.get(0).getValor());
+        assertEquals(TipoLancamento.RECEITA, importados.get(0).getTipo());
+        assertEquals("Mercado; feira", importados.get(1).getDescricao());
+        assertEquals(TipoLancamento.DESPESA, importados.get(1).getTipo());
+        assertEquals(2, importados.get(1).getMes());
+        assertEquals(TipoLancamento.DESPESA, importados.get(2).getTipo());
+        assertEquals(usuario, importados.get(2).getUsuario());
+    }
+
+    @Test
+    void deveImportarOfx() {
+        String ofx = "OFXHEADER:100\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<STMTTRN>\n"
+                + "<TRNTYPE>DEBIT\n"
+                + "<DTPOSTED>20210115120000[-3:BRT]\n"
+                + "<TRNAMT>-50.00\n"
+                + "<MEMO>Farmácia\n"
+                + "</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT</TRNTYPE><DTPOSTED>20210201</DTPOSTED><TRNAMT>200.00</TRNAMT><NAME>Pix recebido</NAME></STMTTRN>\n"
+                + "<STMTTRN>\n"
+                + "<DTPOSTED>2021\n"
+                + "<TRNAMT>1.00\n"
+                + "<MEMO>Sem data\n"
+                + "</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+
+        ResultadoImportacao resultado = service.importar(entrada(ofx), FormatoExtrato.OFX, usuario);
+
+        assertEquals(15, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(10, resultado.getErros().get(0).getLinha());
+
+        List<Lancamento> importados = blocos.get(0);
+        assertEquals("Farmácia", importados.get(0).getDescricao());
+        assertEquals(TipoLancamento.DESPESA, importados.get(0).getTipo());
+        assertEquals(new BigDecimal("50.00"), importados.get(0).getValor());
+        assertEquals("Pix recebido", importados.get(1).getDescricao());
+        assertEquals(2, importados.get(1).getMes());
+    }
+
+    @Test
+    void deveGravarEmBlocosDeTamanhoFixo() {
+        StringBuilder csv = new StringBuilder();
+        int linhas = ImportacaoServiceImpl.TAMANHO_BLOCO * 2 + 1;
+        for (int i = 0; i < linhas; i++) {
+            csv.append("2021-01-01;Lançamento ").append(i).append(";1\n");
+        }
+
+        ResultadoImportacao resultado = service.importar(entrada(csv.toString()), FormatoExtrato.CSV, usuario);
+
+        assertEquals(linhas, resultado.getImportados());
+        verify(lancamentoService, times(3)).salvar(anyList());
+        assertEquals(ImportacaoServiceImpl.TAMANHO_BLOCO, blocos.get(0).size());
+        assertEquals(1, blocos.get(2).size());
+    }
+
+    @Test
+    void deveLimitarErrosDetalhados() {
+        StringBuilder csv = new StringBuilder();
+        int linhas = ImportacaoServiceImpl.LIMITE_ERROS_DETALHADOS + 10;
+        for (int i = 0; i < linhas; i++) {
+            csv.append("invalida\n");
+        }
+
+        ResultadoImportacao resultado = service.importar(entrada(csv.toString()), FormatoExtrato.CSV, usuario);
+
+        assertEquals(linhas, resultado.getTotalErros());
+        assertEquals(ImportacaoServiceImpl.LIMITE_ERROS_DETALHADOS, resultado.getErros().size());
+    }
+
+    @Test
+    void deveContarLinhasFisicasDoArquivo() {
+        String csv = "data;descricao;valor\n"
+                + "\n"
+                + "2021-01-15;Salário;100\n"
+                + "\n"
+                + "2021-01-16;Mercado;-20\n"
+                + "\n";
+
+        ResultadoImportacao resultado = service.importar(entrada(csv), FormatoExtrato.CSV, usuario);
+
+        assertEquals(6, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getImportados());
+        assertNull(resultado.getFalha());
+    }
+
+    @Test
+    void deveInformarLancamentosGravadosQuandoALeituraFalha() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < ImportacaoServiceImpl.TAMANHO_BLOCO + 5; i++) {
+            csv.append("2021-01-01;Lançamento ").append(i).append(";1\n");
+        }
+        InputStream entrada = new SequenceInputStream(entrada(csv.toString()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexão encerrada");
+            }
+        });
+
+        ImportacaoInterrompidaException erro = assertThrows(ImportacaoInterrompidaException.class,
+                () -> service.importar(entrada, FormatoExtrato.CSV, usuario));
+
+        ResultadoImportacao resultado = erro.getResultado();
+        assertEquals(ImportacaoServiceImpl.TAMANHO_BLOCO, resultado.getImportados());
+        assertEquals(ImportacaoServiceImpl.TAMANHO_BLOCO + 5, resultado.getLinhasLidas());
+        assertTrue(resultado.getFalha().contains(ImportacaoServiceImpl.TAMANHO_BLOCO + " lançamentos foram importados"));
+        verify(lancamentoService, times(1)).salvar(anyList());
+    }
+
+    @Test
+    void deveInformarLancamentosGravadosQuandoUmBlocoFalha() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < ImportacaoServiceImpl.TAMANHO_BLOCO * 2; i++) {
+            csv.append("2021-01-01;Lançamento ").append(i).append(";1\n");
+        }
+        doAnswer(invocation -> {
+            List<Lancamento> bloco = invocation.getArgument(0);
+            blocos.add(new ArrayList<>(bloco));
+            return bloco;
+        }).doThrow(new RegraNegocioException("Sincronização expirada."))
+                .when(lancamentoService).salvar(anyList());
+
+        ImportacaoInterrompidaException erro = assertThrows(ImportacaoInterrompidaException.class,
+                () -> service.importar(entrada(csv.toString()), FormatoExtrato.CSV, usuario));
+
+        ResultadoImportacao resultado = erro.getResultado();
+        assertEquals(ImportacaoServiceImpl.TAMANHO_BLOCO, resultado.getImportados());
+        assertEquals(ImportacaoServiceImpl.TAMANHO_BLOCO * 2, resultado.getLinhasLidas());
+        assertTrue(resultado.getFalha().contains("Sincronização expirada."));
+    }
+
+    private static InputStream entrada(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
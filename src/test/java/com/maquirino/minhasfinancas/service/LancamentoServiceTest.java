@@ -1,26 +1,57 @@
 package com.maquirino.minhasfinancas.service;
 
+import com.maquirino.minhasfinancas.exception.AcessoNegadoException;
+import com.maquirino.minhasfinancas.exception.LoteInvalidoException;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.exception.SincronizacaoExpiradaException;
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
 import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
 import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoEventoLancamento;
 import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.pagination.AlteracoesLancamento;
+import com.maquirino.minhasfinancas.model.pagination.CursorAlteracao;
+import com.maquirino.minhasfinancas.model.pagination.CursorLancamento;
+import com.maquirino.minhasfinancas.model.pagination.PaginaLancamento;
+import com.maquirino.minhasfinancas.model.projection.DadosLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import com.maquirino.minhasfinancas.model.repository.LancamentoExcluidoRepository;
 import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
 import com.maquirino.minhasfinancas.service.impl.LancamentoServiceImpl;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -33,6 +64,24 @@ public class LancamentoServiceTest {
     @Mock
     private LancamentoRepository repository;
 
+    @Mock
+    private SaldoService saldoService;
+
+    @Mock
+    private ResumoService resumoService;
+
+    @Mock
+    private EventoLancamentoService eventoService;
+
+    @Mock
+    private SincronizacaoService sincronizacaoService;
+
+    @Mock
+    private LancamentoExcluidoRepository excluidoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     private Lancamento lancamento;
 
     @BeforeEach
@@ -57,6 +106,49 @@ public class LancamentoServiceTest {
         });
     }
 
+    @Test
+    public void deveSalvarLoteDeLancamentos() {
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Lancamento outro = lancamento.toBuilder().id(null).status(StatusLancamento.EFETIVADO).build();
+
+        List<Lancamento> salvos = service.salvar(List.of(lancamento, outro));
+
+        assertEquals(StatusLancamento.PENDENTE, outro.getStatus());
+        assertEquals(2, salvos.size());
+        verify(entityManager).persist(lancamento);
+        verify(entityManager).persist(outro);
+        verify(saldoService).registrar(salvos);
+    }
+
+    @Test
+    public void deveDesanexarApenasOsLancamentosDeCadaLote() {
+        ReflectionTestUtils.setField(service, "tamanhoLote", 2);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Lancamento segundo = lancamento.toBuilder().id(null).descricao("segundo").build();
+        Lancamento terceiro = lancamento.toBuilder().id(null).descricao("terceiro").build();
+
+        service.salvar(List.of(lancamento, segundo, terceiro));
+
+        verify(entityManager).flush();
+        verify(entityManager).detach(lancamento);
+        verify(entityManager).detach(segundo);
+        verify(entityManager, never()).detach(terceiro);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    public void deveNaoSalvarLoteComLancamentosInvalidos() {
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Lancamento semDescricao = lancamento.toBuilder().descricao("").build();
+        Lancamento semUsuario = lancamento.toBuilder().usuario(null).build();
+
+        LoteInvalidoException erro = assertThrows(LoteInvalidoException.class,
+                () -> service.salvar(List.of(lancamento, semDescricao, semUsuario)));
+
+        assertEquals(Set.of(1, 2), erro.getErros().keySet());
+        verify(entityManager, never()).persist(any(Lancamento.class));
+    }
+
     @Test
     public void deveAtualizarUmLancamento() {
         when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
@@ -69,24 +161,198 @@ public class LancamentoServiceTest {
     @Test
     public void deveDeletarUmLancamento() {
         doNothing().when(repository).delete(any(Lancamento.class));
+        when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
         assertDoesNotThrow(() -> {
             service.atualizar(lancamento);
         });
     }
 
     @Test
-    public void deveBuscarUmLancamento() {
-        when(repository.findAll(any(Example.class))).thenReturn(any(List.class));
-        assertDoesNotThrow(() -> {
-            service.buscar(lancamento);
-        });
+    public void deveBuscarPaginaComProximoCursor() {
+        DadosLancamento primeiro = DadosLancamento.de(lancamento);
+        DadosLancamento segundo = DadosLancamento.de(lancamento.toBuilder().id(2L).mes(2).build());
+        DadosLancamento terceiro = DadosLancamento.de(lancamento.toBuilder().id(3L).mes(3).build());
+        when(repository.buscarPagina(lancamento, null, 3)).thenReturn(List.of(primeiro, segundo, terceiro));
+
+        PaginaLancamento pagina = service.buscar(lancamento, null, 2);
+
+        assertEquals(List.of(primeiro, segundo), pagina.getLancamentos());
+        assertEquals(new CursorLancamento(2021, 2, 2L), CursorLancamento.decodificar(pagina.getProximoCursor()));
+    }
+
+    @Test
+    public void deveBuscarUltimaPaginaSemCursor() {
+        String cursor = new CursorLancamento(2021, 1, 1L).codificar();
+        when(repository.buscarPagina(lancamento, CursorLancamento.decodificar(cursor), LancamentoServiceImpl.TAMANHO_PAGINA_PADRAO + 1))
+                .thenReturn(List.of(DadosLancamento.de(lancamento)));
+
+        PaginaLancamento pagina = service.buscar(lancamento, cursor, null);
+
+        assertEquals(1, pagina.getLancamentos().size());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    public void deveLimitarTamanhoDaPagina() {
+        when(repository.buscarPagina(lancamento, null, LancamentoServiceImpl.TAMANHO_PAGINA_MAXIMO + 1)).thenReturn(List.of());
+
+        PaginaLancamento pagina = service.buscar(lancamento, null, 100_000);
+
+        assertTrue(pagina.getLancamentos().isEmpty());
+    }
+
+    @Test
+    public void deveObterDadosDoLancamento() {
+        DadosLancamento dados = DadosLancamento.de(lancamento);
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dados));
+
+        assertEquals(dados, service.obterDados(1L));
+        verify(repository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    public void deveNaoObterDadosDeLancamentoInexistente() {
+        when(repository.obterDados(1L)).thenReturn(Optional.empty());
+
+        assertThrows(RegraNegocioException.class, () -> service.obterDados(1L));
+    }
+
+    @Test
+    public void deveNaoBuscarComTamanhoInvalido() {
+        assertThrows(RegraNegocioException.class, () -> service.buscar(lancamento, null, 0));
+    }
+
+    @Test
+    public void deveNaoBuscarComCursorInvalido() {
+        assertThrows(RegraNegocioException.class, () -> service.buscar(lancamento, "@@@", null));
+    }
+
+    @Test
+    public void deveBuscarAlteracoesComProximoCursor() {
+        Lancamento primeiro = lancamento.toBuilder().alteracao(3L).build();
+        Lancamento segundo = lancamento.toBuilder().id(3L).alteracao(5L).build();
+        Lancamento terceiro = lancamento.toBuilder().id(4L).alteracao(6L).build();
+        when(sincronizacaoService.obterContador(1L)).thenReturn(Optional.of(contador(9L, 0L)));
+        when(repository.buscarAlteracoes(1L, 0L, 0L, 9L, PageRequest.of(0, 4))).thenReturn(List.of(primeiro, segundo, terceiro));
+        when(excluidoRepository.buscarExcluidos(1L, 0L, 0L, 9L, PageRequest.of(0, 4))).thenReturn(List.of(excluido(8L, 4L)));
+
+        AlteracoesLancamento alteracoes = service.buscarAlteracoes(1L, null, 3);
+
+        assertEquals(List.of(DadosLancamento.de(primeiro), DadosLancamento.de(segundo)), alteracoes.getLancamentos());
+        assertEquals(List.of(8L), alteracoes.getExcluidos());
+        assertEquals(new CursorAlteracao(5L, 3L), CursorAlteracao.decodificar(alteracoes.getProximoCursor()));
+        assertTrue(alteracoes.isTemMais());
+    }
+
+    @Test
+    public void deveContinuarAlteracoesPelosExcluidosRestantes() {
+        when(sincronizacaoService.obterContador(1L)).thenReturn(Optional.of(contador(9L, 0L)));
+        when(repository.buscarAlteracoes(1L, 0L, 0L, 9L, PageRequest.of(0, 2))).thenReturn(List.of(lancamento.toBuilder().alteracao(7L).build()));
+        when(excluidoRepository.buscarExcluidos(1L, 0L, 0L, 9L, PageRequest.of(0, 2))).thenReturn(List.of(excluido(8L, 4L), excluido(6L, 5L)));
+
+        AlteracoesLancamento alteracoes = service.buscarAlteracoes(1L, null, 1);
+
+        assertTrue(alteracoes.getLancamentos().isEmpty());
+        assertEquals(List.of(8L), alteracoes.getExcluidos());
+        assertEquals(new CursorAlteracao(4L, 8L), CursorAlteracao.decodificar(alteracoes.getProximoCursor()));
+        assertTrue(alteracoes.isTemMais());
+    }
+
+    @Test
+    public void deveBuscarUltimasAlteracoesAteOContadorDoUsuario() {
+        String cursor = new CursorAlteracao(3L, 2L).codificar();
+        PageRequest pagina = PageRequest.of(0, LancamentoServiceImpl.TAMANHO_PAGINA_PADRAO + 1);
+        when(sincronizacaoService.obterContador(1L)).thenReturn(Optional.of(contador(9L, 3L)));
+        when(repository.buscarAlteracoes(1L, 3L, 2L, 9L, pagina)).thenReturn(List.of(lancamento.toBuilder().alteracao(5L).build()));
+        when(excluidoRepository.buscarExcluidos(1L, 3L, 2L, 9L, pagina)).thenReturn(List.of(excluido(8L, 4L)));
+
+        AlteracoesLancamento alteracoes = service.buscarAlteracoes(1L, cursor, null);
+
+        assertEquals(1, alteracoes.getLancamentos().size());
+        assertEquals(List.of(8L), alteracoes.getExcluidos());
+        assertEquals(new CursorAlteracao(9L, Long.MAX_VALUE), CursorAlteracao.decodificar(alteracoes.getProximoCursor()));
+        assertFalse(alteracoes.isTemMais());
+    }
+
+    @Test
+    public void deveRecusarCursorAnteriorAsExclusoesExpurgadas() {
+        String cursor = new CursorAlteracao(3L, 2L).codificar();
+        when(sincronizacaoService.obterContador(1L)).thenReturn(Optional.of(contador(9L, 4L)));
+
+        assertThrows(SincronizacaoExpiradaException.class, () -> service.buscarAlteracoes(1L, cursor, null));
+        verify(repository, never()).buscarAlteracoes(anyLong(), anyLong(), anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    public void deveBuscarAlteracoesSemCursorDepoisDoExpurgo() {
+        when(sincronizacaoService.obterContador(1L)).thenReturn(Optional.of(contador(9L, 4L)));
+        when(repository.buscarAlteracoes(1L, 0L, 0L, 9L, PageRequest.of(0, 11))).thenReturn(List.of());
+        when(excluidoRepository.buscarExcluidos(1L, 0L, 0L, 9L, PageRequest.of(0, 11))).thenReturn(List.of());
+
+        AlteracoesLancamento alteracoes = service.buscarAlteracoes(1L, null, 10);
+
+        assertEquals(new CursorAlteracao(9L, Long.MAX_VALUE), CursorAlteracao.decodificar(alteracoes.getProximoCursor()));
+    }
+
+    @Test
+    public void deveNaoBuscarAlteracoesComCursorInvalido() {
+        assertThrows(RegraNegocioException.class, () -> service.buscarAlteracoes(1L, "@@@", null));
+    }
+
+    @Test
+    public void deveRegistrarExclusaoAoDeletar() {
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+
+        service.deletar(lancamento);
+
+        verify(sincronizacaoService).registrarExclusao(lancamento);
+    }
+
+    @Test
+    public void deveExportarDesanexandoCadaLancamento() {
+        when(repository.streamPorUsuario(1L)).thenReturn(Stream.of(lancamento));
+        List<Lancamento> exportados = new ArrayList<>();
+
+        service.exportar(1L, exportados::add);
+
+        assertEquals(List.of(lancamento), exportados);
+        verify(entityManager).detach(lancamento);
     }
 
     @Test
     public void deveBuscarSaldo() {
-        when(repository.obterSaldoPorTipoLancamentoEUsuario(any(Long.class), any(TipoLancamento.class))).thenReturn(BigDecimal.TEN);
+        when(saldoService.obterSaldo(any(Long.class))).thenReturn(BigDecimal.TEN);
         BigDecimal saldo = service.obterSaldo(lancamento.getId());
-        assertEquals(BigDecimal.ZERO, saldo);
+        assertEquals(BigDecimal.TEN, saldo);
+    }
+
+    @Test
+    public void deveRegistrarSaldoAoSalvar() {
+        when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
+
+        service.salvar(lancamento);
+
+        verify(saldoService).registrar(lancamento);
+    }
+
+    @Test
+    public void deveEstornarSaldoAnteriorAoAtualizar() {
+        Lancamento anterior = lancamento.toBuilder().valor(BigDecimal.TEN).build();
+        when(repository.findById(lancamento.getId())).thenReturn(Optional.of(anterior));
+        when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
+
+        service.atualizar(lancamento);
+
+        verify(saldoService).estornar(anterior);
+        verify(saldoService).registrar(lancamento);
+    }
+
+    @Test
+    public void deveEstornarSaldoAoDeletar() {
+        service.deletar(lancamento);
+
+        verify(repository).delete(lancamento);
+        verify(saldoService).estornar(lancamento);
     }
 
     @Test
@@ -98,6 +364,155 @@ public class LancamentoServiceTest {
         });
     }
 
+    @Test
+    public void deveAtualizarStatusEmUmaInstrucao() {
+        TotaisResumo anterior = new TotaisResumo(1L, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L);
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dadosPendentes()));
+        when(repository.atualizarStatus(1L, 1L, StatusLancamento.EFETIVADO, 2L)).thenReturn(1);
+
+        DadosLancamento atualizado = service.atualizarStatus(1L, StatusLancamento.EFETIVADO, 2L, 1L);
+
+        DadosLancamento esperado = new DadosLancamento(1L, "test", 1, 2021,
+                BigDecimal.TEN, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 3L, 1L);
+        assertEquals(esperado, atualizado);
+        InOrder ordem = inOrder(sincronizacaoService, repository);
+        ordem.verify(sincronizacaoService).travar(1L);
+        ordem.verify(repository).atualizarStatus(1L, 1L, StatusLancamento.EFETIVADO, 2L);
+        ordem.verify(sincronizacaoService).incrementar(1L);
+        verify(resumoService).alterarStatus(List.of(anterior), StatusLancamento.EFETIVADO);
+        verify(eventoService).registrar(TipoEventoLancamento.STATUS_ALTERADO, esperado);
+        verify(repository, never()).save(any(Lancamento.class));
+    }
+
+    @Test
+    public void deveAceitarStatusJaAtualizadoSemEscrever() {
+        DadosLancamento efetivado = new DadosLancamento(1L, "test", 1, 2021,
+                BigDecimal.TEN, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 2L, 1L);
+        when(repository.obterDados(1L)).thenReturn(Optional.of(efetivado));
+
+        assertEquals(efetivado, service.atualizarStatus(1L, StatusLancamento.EFETIVADO, null, null));
+        verifyNoInteractions(sincronizacaoService, resumoService, eventoService);
+        verify(repository, never()).atualizarStatus(anyLong(), any(), any(StatusLancamento.class), any());
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusComVersaoDesatualizada() {
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dadosPendentes()));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.atualizarStatus(1L, StatusLancamento.EFETIVADO, 1L, null));
+        verifyNoInteractions(sincronizacaoService);
+        verify(repository, never()).atualizarStatus(anyLong(), any(), any(StatusLancamento.class), any());
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusAlteradoConcorrentemente() {
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dadosPendentes()));
+        when(repository.atualizarStatus(1L, 1L, StatusLancamento.EFETIVADO, 2L)).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.atualizarStatus(1L, StatusLancamento.EFETIVADO, null, null));
+        verify(sincronizacaoService, never()).incrementar(anyLong());
+        verify(resumoService, never()).alterarStatus(any(), any());
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusDeLancamentoExcluidoConcorrentemente() {
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dadosPendentes()), Optional.empty());
+        when(repository.atualizarStatus(1L, 1L, StatusLancamento.EFETIVADO, 2L)).thenReturn(0);
+
+        assertThrows(RegraNegocioException.class, () -> service.atualizarStatus(1L, StatusLancamento.EFETIVADO, null, null));
+        verify(sincronizacaoService, never()).incrementar(anyLong());
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusDeLancamentoInexistente() {
+        when(repository.obterDados(1L)).thenReturn(Optional.empty());
+
+        assertThrows(RegraNegocioException.class, () -> service.atualizarStatus(1L, StatusLancamento.EFETIVADO, null, null));
+        verify(repository, never()).atualizarStatus(anyLong(), any(), any(StatusLancamento.class), any());
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusDeLancamentoDeOutroUsuario() {
+        when(repository.obterDados(1L)).thenReturn(Optional.of(dadosPendentes()));
+
+        assertThrows(AcessoNegadoException.class, () -> service.atualizarStatus(1L, StatusLancamento.EFETIVADO, 2L, 9L));
+
+        verify(repository, never()).atualizarStatus(anyLong(), any(), any(StatusLancamento.class), any());
+        verifyNoInteractions(sincronizacaoService);
+        verify(resumoService, never()).alterarStatus(any(), any());
+    }
+
+    @Test
+    public void deveAtualizarStatusEmLote() {
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1L).build()).build();
+        List<TotaisResumo> anteriores = List.of(new TotaisResumo(1L, 2021, 1, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE, BigDecimal.TEN, 2L));
+        when(repository.obterResumoParaAtualizacao(filtro, List.of(1L, 2L), StatusLancamento.EFETIVADO)).thenReturn(anteriores);
+        when(repository.atualizarStatus(filtro, List.of(1L, 2L), StatusLancamento.EFETIVADO)).thenReturn(2);
+
+        assertEquals(2, service.atualizarStatus(filtro, List.of(1L, 2L), StatusLancamento.EFETIVADO));
+        InOrder ordem = inOrder(sincronizacaoService, repository);
+        ordem.verify(sincronizacaoService).travar(1L);
+        ordem.verify(repository).atualizarStatus(filtro, List.of(1L, 2L), StatusLancamento.EFETIVADO);
+        ordem.verify(sincronizacaoService).incrementar(1L);
+        verify(resumoService).alterarStatus(anteriores, StatusLancamento.EFETIVADO);
+    }
+
+    @Test
+    public void deveNaoRegistrarAlteracaoEmLoteSemLancamentosParaAlterar() {
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1L).build()).ano(2021).build();
+        when(repository.obterResumoParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(List.of());
+
+        assertEquals(0, service.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO));
+        verifyNoInteractions(sincronizacaoService, resumoService, eventoService);
+        verify(repository, never()).atualizarStatus(any(Lancamento.class), any(), any(StatusLancamento.class));
+    }
+
+    @Test
+    public void deveRegistrarEventoAoSalvarUmLancamento() {
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
+
+        service.salvar(lancamento);
+
+        verify(eventoService).registrar(TipoEventoLancamento.CRIADO, DadosLancamento.de(lancamento));
+    }
+
+    @Test
+    public void deveRegistrarEventosDeStatusEmLoteComNovaVersao() {
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1L).build()).ano(2021).build();
+        DadosLancamento dados = new DadosLancamento(1L, "test", 1, 2021, BigDecimal.TEN, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE, 3L, 1L);
+        when(repository.obterResumoParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(List.of(
+                new TotaisResumo(1L, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L)));
+        when(repository.obterDadosParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(List.of(dados));
+        when(repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(1);
+
+        service.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+
+        verify(eventoService).registrar(TipoEventoLancamento.STATUS_ALTERADO, List.of(new DadosLancamento(1L, "test", 1,
+                2021, BigDecimal.TEN, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 4L, 1L)));
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusEmLoteAlteradoConcorrentemente() {
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1L).build()).ano(2021).build();
+        when(repository.obterResumoParaAtualizacao(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(List.of(
+                new TotaisResumo(1L, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN, 2L)));
+        when(repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(3);
+
+        assertThrows(RegraNegocioException.class, () -> service.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO));
+        verify(resumoService, never()).alterarStatus(any(), any(StatusLancamento.class));
+    }
+
+    @Test
+    public void deveNaoAtualizarStatusEmLoteSemIdsNemFiltro() {
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1L).build()).build();
+
+        assertThrows(RegraNegocioException.class, () -> service.atualizarStatus(filtro, List.of(), StatusLancamento.EFETIVADO));
+        verify(repository, never()).atualizarStatus(any(Lancamento.class), any(), any(StatusLancamento.class));
+    }
+
     @Test
     public void deveNaoSalvarUmLancamentoErroDescricaoEmBranco() {
         when(repository.save(any(Lancamento.class))).thenReturn(lancamento);
@@ -142,4 +557,16 @@ public class LancamentoServiceTest {
             service.salvar(lancamento);
         });
     }
+
+    private static AlteracaoUsuario contador(Long alteracao, Long expurgado) {
+        return AlteracaoUsuario.builder().idUsuario(1L).alteracao(alteracao).expurgado(expurgado).build();
+    }
+
+    private static LancamentoExcluido excluido(Long idLancamento, Long alteracao) {
+        return LancamentoExcluido.builder().idLancamento(idLancamento).idUsuario(1L).alteracao(alteracao).build();
+    }
+
+    private static DadosLancamento dadosPendentes() {
+        return new DadosLancamento(1L, "test", 1, 2021, BigDecimal.TEN, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 2L, 1L);
+    }
 }
@@ -0,0 +1,184 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.exception.RegraNegocioException;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.ResumoMensal;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisResumo;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.impl.ResumoServiceImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumoServiceTest {
+
+    @InjectMocks
+    private ResumoServiceImpl service;
+
+    @Mock
+    private ResumoMensalRepository repository;
+
+    @Mock
+    private LancamentoRepository lancamentoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private SincronizacaoService sincronizacaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Lancamento lancamento;
+
+    @BeforeEach
+    void setUp() {
+        lancamento = Lancamento.builder()
+                .id(1L)
+                .descricao("test")
+                .mes(1)
+                .ano(2021)
+                .valor(BigDecimal.TEN)
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .usuario(Usuario.builder().id(1L).build())
+                .build();
+    }
+
+    @Test
+    void deveAcumularNoResumoDoMesAoRegistrar() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(1);
+
+        service.registrar(lancamento);
+
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L);
+        verify(repository, never()).save(any(ResumoMensal.class));
+    }
+
+    @Test
+    void deveCriarResumoQuandoMesNaoPossuiResumo() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(0);
+
+        service.registrar(lancamento);
+
+        ArgumentCaptor<ResumoMensal> captor = ArgumentCaptor.forClass(ResumoMensal.class);
+        verify(repository).save(captor.capture());
+        assertEquals(BigDecimal.TEN, captor.getValue().getTotal());
+        assertEquals(1L, captor.getValue().getQuantidade());
+        assertEquals(StatusLancamento.PENDENTE, captor.getValue().getStatus());
+        verify(sincronizacaoService).travar(1L);
+        verify(repository, times(1)).acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong());
+    }
+
+    @Test
+    void deveAcumularNoResumoCriadoPorOutraTransacao() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(0, 1);
+        when(sincronizacaoService.travar(1L)).thenReturn(true);
+
+        service.registrar(lancamento);
+
+        verify(sincronizacaoService).travar(1L);
+        verify(repository, times(2)).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L);
+        verify(repository, never()).save(any(ResumoMensal.class));
+    }
+
+    @Test
+    void deveAgruparLoteAntesDeAcumular() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(1);
+
+        service.registrar(List.of(lancamento, lancamento.toBuilder().valor(BigDecimal.ONE).build(),
+                lancamento.toBuilder().mes(2).build()));
+
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(11), 2L);
+        verify(repository).acumular(1L, 2021, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L);
+    }
+
+    @Test
+    void deveSubtrairValorAoEstornar() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(1);
+
+        service.estornar(lancamento);
+
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN.negate(), -1L);
+    }
+
+    @Test
+    void deveMoverTotaisEntreStatusAoAlterarStatus() {
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(1);
+        TotaisResumo anterior = new TotaisResumo(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 3L);
+
+        service.alterarStatus(List.of(anterior), StatusLancamento.EFETIVADO);
+
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN.negate(), -3L);
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.TEN, 3L);
+    }
+
+    @Test
+    void deveNaoObterResumoComPeriodoInvertido() {
+        assertThrows(RegraNegocioException.class, () -> service.obterResumo(1L, 2022, 2021));
+    }
+
+    @Test
+    void deveReconciliarAplicandoSoAsDiferencas() {
+        ResumoMensal janeiro = ResumoMensal.builder().id(5L).idUsuario(1L).ano(2021).mes(1)
+                .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).total(BigDecimal.TEN).quantidade(1L).build();
+        ResumoMensal fevereiro = janeiro.toBuilder().id(6L).mes(2).total(BigDecimal.ONE).build();
+        ResumoMensal marco = janeiro.toBuilder().id(7L).mes(3).build();
+        when(usuarioRepository.obterIds()).thenReturn(List.of(1L));
+        when(repository.findByIdUsuario(1L)).thenReturn(List.of(janeiro, fevereiro, marco));
+        when(lancamentoRepository.obterTotaisResumo(1L)).thenReturn(List.of(
+                new TotaisResumo(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(12), 2L),
+                new TotaisResumo(1L, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L),
+                new TotaisResumo(1L, 2021, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.ONE, 1L)));
+        when(repository.acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong())).thenReturn(1);
+
+        service.reconciliar();
+
+        verify(sincronizacaoService).travar(1L);
+        verify(repository).acumular(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(2), 1L);
+        verify(repository).acumular(1L, 2021, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.ONE.negate(), -1L);
+        verify(repository).acumular(1L, 2021, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.ONE, 1L);
+        verify(repository, never()).acumular(anyLong(), anyInt(), eq(3), any(), any(), any(BigDecimal.class), anyLong());
+        verify(sincronizacaoService).registrar(1L);
+    }
+
+    @Test
+    void deveManterVersaoDoUsuarioComResumoConsistente() {
+        when(usuarioRepository.obterIds()).thenReturn(List.of(1L));
+        when(repository.findByIdUsuario(1L)).thenReturn(List.of(ResumoMensal.builder().id(5L).idUsuario(1L).ano(2021).mes(1)
+                .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).total(BigDecimal.TEN).quantidade(1L).build()));
+        when(lancamentoRepository.obterTotaisResumo(1L)).thenReturn(List.of(
+                new TotaisResumo(1L, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.TEN, 1L)));
+
+        service.reconciliar();
+
+        verify(repository, never()).acumular(anyLong(), anyInt(), anyInt(), any(), any(), any(BigDecimal.class), anyLong());
+        verify(sincronizacaoService, never()).registrar(anyLong());
+    }
+}
@@ -0,0 +1,179 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.SaldoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.enums.StatusLancamento;
+import com.maquirino.minhasfinancas.model.enums.TipoLancamento;
+import com.maquirino.minhasfinancas.model.projection.TotaisLancamento;
+import com.maquirino.minhasfinancas.model.repository.LancamentoRepository;
+import com.maquirino.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.impl.SaldoServiceImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SaldoServiceTest {
+
+    @InjectMocks
+    private SaldoServiceImpl service;
+
+    @Mock
+    private SaldoUsuarioRepository repository;
+
+    @Mock
+    private LancamentoRepository lancamentoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private SincronizacaoService sincronizacaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Lancamento lancamento;
+
+    @BeforeEach
+    void setUp() {
+        lancamento = Lancamento.builder()
+                .id(1L)
+                .descricao("test")
+                .mes(1)
+                .ano(2021)
+                .valor(BigDecimal.TEN)
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .usuario(Usuario.builder().id(1L).build())
+                .build();
+    }
+
+    @Test
+    void deveAcumularDespesaAoRegistrar() {
+        when(repository.acumular(anyLong(), any(BigDecimal.class), any(BigDecimal.class))).thenReturn(1);
+
+        service.registrar(lancamento);
+
+        verify(repository).acumular(1L, BigDecimal.ZERO, BigDecimal.TEN);
+        verify(repository, never()).save(any(SaldoUsuario.class));
+    }
+
+    @Test
+    void deveSubtrairValorAoEstornar() {
+        when(repository.acumular(anyLong(), any(BigDecimal.class), any(BigDecimal.class))).thenReturn(1);
+
+        service.estornar(lancamento);
+
+        verify(repository).acumular(1L, BigDecimal.ZERO, BigDecimal.TEN.negate());
+    }
+
+    @Test
+    void deveCriarSaldoQuandoUsuarioNaoPossuiSaldo() {
+        when(repository.acumular(anyLong(), any(BigDecimal.class), any(BigDecimal.class))).thenReturn(0);
+
+        service.registrar(lancamento);
+
+        ArgumentCaptor<SaldoUsuario> captor = ArgumentCaptor.forClass(SaldoUsuario.class);
+        verify(repository).save(captor.capture());
+        assertEquals(BigDecimal.TEN.negate(), captor.getValue().getSaldo());
+        verify(sincronizacaoService).travar(1L);
+    }
+
+    @Test
+    void deveAcumularNoSaldoCriadoPorOutraTransacao() {
+        when(repository.acumular(anyLong(), any(BigDecimal.class), any(BigDecimal.class))).thenReturn(0, 1);
+        when(sincronizacaoService.travar(1L)).thenReturn(true);
+
+        service.registrar(lancamento);
+
+        verify(repository, times(2)).acumular(1L, BigDecimal.ZERO, BigDecimal.TEN);
+        verify(repository, never()).save(any(SaldoUsuario.class));
+    }
+
+    @Test
+    void deveObterSaldoMaterializado() {
+        when(repository.findById(1L)).thenReturn(Optional.of(SaldoUsuario.builder()
+                .idUsuario(1L)
+                .receitas(BigDecimal.TEN)
+                .despesas(BigDecimal.ONE)
+                .build()));
+
+        assertEquals(BigDecimal.valueOf(9), service.obterSaldo(1L));
+    }
+
+    @Test
+    void deveObterSaldoZeradoQuandoNaoExistir() {
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(lancamentoRepository.obterTotaisPorUsuario(1L)).thenReturn(Optional.empty());
+
+        assertEquals(BigDecimal.ZERO, service.obterSaldo(1L));
+    }
+
+    @Test
+    void deveCalcularSaldoQuandoNaoMaterializado() {
+        TotaisLancamento totais = mock(TotaisLancamento.class);
+        when(totais.getReceitas()).thenReturn(BigDecimal.TEN);
+        when(totais.getDespesas()).thenReturn(BigDecimal.ONE);
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(lancamentoRepository.obterTotaisPorUsuario(1L)).thenReturn(Optional.of(totais));
+
+        assertEquals(BigDecimal.valueOf(9), service.obterSaldo(1L));
+    }
+
+    @Test
+    void deveReconciliarSomandoADiferencaComOContadorTravado() {
+        TotaisLancamento totais = mock(TotaisLancamento.class);
+        when(totais.getReceitas()).thenReturn(BigDecimal.TEN);
+        when(totais.getDespesas()).thenReturn(BigDecimal.ONE);
+        when(usuarioRepository.obterIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(repository.findById(1L)).thenReturn(Optional.of(SaldoUsuario.builder()
+                .idUsuario(1L)
+                .receitas(BigDecimal.valueOf(7))
+                .despesas(BigDecimal.ONE)
+                .build()));
+        when(lancamentoRepository.obterTotaisPorUsuario(1L)).thenReturn(Optional.of(totais));
+        when(repository.findById(2L)).thenReturn(Optional.of(SaldoUsuario.builder()
+                .idUsuario(2L)
+                .receitas(BigDecimal.ONE)
+                .despesas(BigDecimal.ZERO)
+                .build()));
+        when(lancamentoRepository.obterTotaisPorUsuario(2L)).thenReturn(Optional.empty());
+        when(repository.findById(3L)).thenReturn(Optional.empty());
+        when(lancamentoRepository.obterTotaisPorUsuario(3L)).thenReturn(Optional.empty());
+        when(repository.acumular(anyLong(), any(BigDecimal.class), any(BigDecimal.class))).thenReturn(1);
+
+        service.reconciliar();
+
+        verify(sincronizacaoService).travar(1L);
+        verify(sincronizacaoService).travar(2L);
+        verify(repository).acumular(1L, BigDecimal.valueOf(3), BigDecimal.ZERO);
+        verify(repository).acumular(2L, BigDecimal.ONE.negate(), BigDecimal.ZERO);
+        verify(repository, never()).acumular(eq(3L), any(BigDecimal.class), any(BigDecimal.class));
+        verify(repository, never()).saveAll(any());
+        verify(sincronizacaoService).registrar(1L);
+        verify(sincronizacaoService).registrar(2L);
+        verify(sincronizacaoService, never()).registrar(3L);
+    }
+}
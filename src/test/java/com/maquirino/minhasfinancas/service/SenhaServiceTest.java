@@ -0,0 +1,88 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.service.impl.SenhaServiceImpl;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SenhaServiceTest {
+
+    private SenhaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SenhaServiceImpl(4, 1, 1);
+        service.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void deveCodificarEConferirSenha() {
+        String hash = service.codificar("123");
+
+        assertNotEquals("123", hash);
+        assertTrue(service.confere("123", hash));
+        assertFalse(service.confere("1234", hash));
+        assertFalse(service.precisaAtualizar(hash));
+    }
+
+    @Test
+    void deveConferirSenhaLegadaEmTextoPuro() {
+        assertTrue(service.confere("123", "123"));
+        assertFalse(service.confere("1234", "123"));
+        assertFalse(service.confere(null, "123"));
+        assertTrue(service.precisaAtualizar("123"));
+    }
+
+    @Test
+    void deveAtualizarSenhaCodificadaComCustoMenor() {
+        SenhaServiceImpl custoMaior = new SenhaServiceImpl(5, 1, 1);
+        custoMaior.iniciar();
+        try {
+            assertTrue(custoMaior.precisaAtualizar(service.codificar("123")));
+            assertFalse(service.precisaAtualizar(custoMaior.codificar("123")));
+        } finally {
+            custoMaior.encerrar();
+        }
+    }
+
+    @Test
+    void deveRecusarTarefasAlemDaCapacidadeDoPool() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch emExecucao = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> ocupando = service.executar(() -> {
+            emExecucao.countDown();
+            try {
+                return liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        emExecucao.await();
+        CompletableFuture<String> naFila = service.executar(() -> "fila");
+        CompletableFuture<String> recusada = service.executar(() -> "recusada");
+
+        CompletionException erro = assertThrows(CompletionException.class, recusada::join);
+        assertTrue(erro.getCause() instanceof RejectedExecutionException);
+
+        liberar.countDown();
+        assertTrue(ocupando.join());
+        assertEquals("fila", naFila.join());
+    }
+}
@@ -0,0 +1,151 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.model.entity.AlteracaoUsuario;
+import com.maquirino.minhasfinancas.model.entity.Lancamento;
+import com.maquirino.minhasfinancas.model.entity.LancamentoExcluido;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.repository.AlteracaoUsuarioRepository;
+import com.maquirino.minhasfinancas.model.repository.LancamentoExcluidoRepository;
+import com.maquirino.minhasfinancas.service.impl.SincronizacaoServiceImpl;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SincronizacaoServiceTest {
+
+    @InjectMocks
+    private SincronizacaoServiceImpl service;
+
+    @Mock
+    private AlteracaoUsuarioRepository repository;
+
+    @Mock
+    private LancamentoExcluidoRepository excluidoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Test
+    public void deveIniciarContadorDoUsuario() {
+        service.iniciar(1L);
+
+        verify(entityManager).persist(AlteracaoUsuario.builder().idUsuario(1L).alteracao(0L).expurgado(0L).build());
+    }
+
+    @Test
+    public void deveIncrementarContadorExistente() {
+        when(repository.incrementar(1L)).thenReturn(1);
+        when(repository.obterAlteracao(1L)).thenReturn(Optional.of(4L));
+
+        assertEquals(4L, service.registrar(1L));
+    }
+
+    @Test
+    public void deveIncrementarContadorSemLerONovoValor() {
+        when(repository.incrementar(1L)).thenReturn(1);
+
+        service.incrementar(1L);
+
+        verify(repository).incrementar(1L);
+        verify(repository, never()).obterAlteracao(any());
+    }
+
+    @Test
+    public void deveCriarContadorNaPrimeiraAlteracao() {
+        when(repository.incrementar(1L)).thenReturn(0, 1);
+        when(repository.travar(1L)).thenReturn(Optional.empty());
+        when(repository.obterAlteracao(1L)).thenReturn(Optional.of(1L));
+
+        assertEquals(1L, service.registrar(1L));
+        verify(entityManager).find(Usuario.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+        verify(entityManager).persist(AlteracaoUsuario.builder().idUsuario(1L).alteracao(0L).expurgado(0L).build());
+        verify(repository, times(2)).incrementar(1L);
+    }
+
+    @Test
+    public void deveUsarContadorCriadoPorOutraTransacao() {
+        when(repository.travar(1L)).thenReturn(Optional.empty(),
+                Optional.of(AlteracaoUsuario.builder().idUsuario(1L).alteracao(1L).expurgado(0L).build()));
+
+        service.travar(1L);
+
+        verify(entityManager).find(Usuario.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+        verify(entityManager, never()).persist(any(AlteracaoUsuario.class));
+    }
+
+    @Test
+    public void deveTravarContadorExistenteSemTravarUsuario() {
+        when(repository.travar(1L)).thenReturn(Optional.of(AlteracaoUsuario.builder().idUsuario(1L).alteracao(3L).expurgado(0L).build()));
+
+        service.travar(1L);
+
+        verify(entityManager, never()).find(Usuario.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+        verify(repository, never()).incrementar(1L);
+    }
+
+    @Test
+    public void deveIncrementarUmaVezPorUsuarioNoLote() {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento primeiro = Lancamento.builder().usuario(usuario).build();
+        Lancamento segundo = Lancamento.builder().usuario(usuario).build();
+        when(repository.incrementar(1L)).thenReturn(1);
+        when(repository.obterAlteracao(1L)).thenReturn(Optional.of(6L));
+
+        service.registrar(List.of(primeiro, segundo));
+
+        verify(repository, times(1)).incrementar(1L);
+        assertEquals(6L, primeiro.getAlteracao());
+        assertEquals(6L, segundo.getAlteracao());
+    }
+
+    @Test
+    public void deveRegistrarLancamentoExcluidoComNovaAlteracao() {
+        Lancamento lancamento = Lancamento.builder().id(9L).usuario(Usuario.builder().id(1L).build()).build();
+        when(repository.incrementar(1L)).thenReturn(1);
+        when(repository.obterAlteracao(1L)).thenReturn(Optional.of(2L));
+
+        service.registrarExclusao(lancamento);
+
+        ArgumentCaptor<LancamentoExcluido> excluido = ArgumentCaptor.forClass(LancamentoExcluido.class);
+        verify(entityManager).persist(excluido.capture());
+        assertNotNull(excluido.getValue().getDataExclusao());
+        assertEquals(LancamentoExcluido.builder().idLancamento(9L).idUsuario(1L).alteracao(2L)
+                .dataExclusao(excluido.getValue().getDataExclusao()).build(), excluido.getValue());
+    }
+
+    @Test
+    public void deveObterAlteracaoAtualDoUsuario() {
+        when(repository.obterAlteracao(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(3L), service.obterAlteracao(1L));
+    }
+
+    @Test
+    public void deveExpurgarExclusoesForaDaRetencao() {
+        service.limpar();
+
+        ArgumentCaptor<LocalDateTime> limite = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).expurgarAte(limite.capture());
+        verify(excluidoRepository).excluirAte(limite.getValue());
+        assertTrue(limite.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.service.impl.TokenServiceImpl;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenServiceTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes";
+    private static final Instant AGORA = Instant.parse("2021-03-01T10:00:00Z");
+
+    private final TokenServiceImpl service = new TokenServiceImpl(SEGREDO, Duration.ofHours(1), Clock.fixed(AGORA, ZoneOffset.UTC));
+    private final Usuario usuario = Usuario.builder().id(7L).build();
+
+    @Test
+    void deveValidarTokenGerado() {
+        assertEquals(7L, service.validar(service.gerar(usuario)));
+    }
+
+    @Test
+    void deveValidarTokenEmOutraInstanciaComMesmoSegredo() {
+        TokenServiceImpl outraInstancia = new TokenServiceImpl(SEGREDO, Duration.ofHours(1), Clock.fixed(AGORA, ZoneOffset.UTC));
+
+        assertEquals(7L, outraInstancia.validar(service.gerar(usuario)));
+    }
+
+    @Test
+    void deveNaoValidarTokenComCorpoAlterado() {
+        String[] partes = service.gerar(usuario).split("\\.");
+        String corpo = new String(Base64.getUrlDecoder().decode(partes[1]), StandardCharsets.UTF_8).replace("\"7\"", "\"8\"");
+        String adulterado = partes[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(corpo.getBytes(StandardCharsets.UTF_8)) + "." + partes[2];
+
+        assertThrows(ErroAutenticacao.class, () -> service.validar(adulterado));
+    }
+
+    @Test
+    void deveNaoValidarTokenAssinadoComOutroSegredo() {
+        TokenServiceImpl outroSegredo = new TokenServiceImpl(SEGREDO + "-outro", Duration.ofHours(1), Clock.fixed(AGORA, ZoneOffset.UTC));
+
+        assertThrows(ErroAutenticacao.class, () -> service.validar(outroSegredo.gerar(usuario)));
+    }
+
+    @Test
+    void deveNaoValidarTokenSemAssinatura() {
+        String[] partes = service.gerar(usuario).split("\\.");
+        String semAssinatura = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "." + partes[1] + ".";
+
+        assertThrows(ErroAutenticacao.class, () -> service.validar(semAssinatura));
+        assertThrows(ErroAutenticacao.class, () -> service.validar("invalido"));
+        assertThrows(ErroAutenticacao.class, () -> service.validar(null));
+    }
+
+    @Test
+    void deveNaoValidarTokenExpirado() {
+        String token = service.gerar(usuario);
+        TokenServiceImpl depois = new TokenServiceImpl(SEGREDO, Duration.ofHours(1),
+                Clock.fixed(AGORA.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+
+        ErroAutenticacao erro = assertThrows(ErroAutenticacao.class, () -> depois.validar(token));
+        assertEquals("Token expirado", erro.getMessage());
+    }
+
+    @Test
+    void deveExigirSegredoComTamanhoMinimo() {
+        assertThrows(IllegalStateException.class, () -> new TokenServiceImpl("curto", Duration.ofHours(1), Clock.systemUTC()));
+    }
+
+    @Test
+    void deveExigirSegredoConfigurado() {
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> new TokenServiceImpl("", Duration.ofHours(1), Clock.systemUTC()));
+        assertEquals("minhasfinancas.token.segredo não configurado", erro.getMessage());
+    }
+}
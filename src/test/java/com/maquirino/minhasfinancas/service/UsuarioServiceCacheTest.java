@@ -0,0 +1,93 @@
+package com.maquirino.minhasfinancas.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
+import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
+import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+class UsuarioServiceCacheTest {
+
+    @Autowired
+    private UsuarioService service;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        usuario = service.salvarUsuario(Usuario.builder()
+                .nome("cache")
+                .email("cache@test.com.br")
+                .senha("123")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveObterUsuarioPorIdDoCache() {
+        CacheStats antes = nativo(UsuarioRepository.CACHE_POR_ID).stats();
+
+        service.obterPorId(usuario.getId());
+        service.obterPorId(usuario.getId());
+
+        CacheStats depois = nativo(UsuarioRepository.CACHE_POR_ID).stats().minus(antes);
+        assertEquals(1, depois.hitCount());
+        assertEquals(1, depois.missCount());
+    }
+
+    @Test
+    void deveGuardarNoCacheDadosImutaveisSemSenha() {
+        service.obterPorId(usuario.getId());
+
+        Object guardado = nativo(UsuarioRepository.CACHE_POR_ID).getIfPresent(usuario.getId());
+        assertEquals(new DadosUsuario(usuario.getId(), "cache", "cache@test.com.br"), guardado);
+    }
+
+    @Test
+    void deveInvalidarCacheAoTrocarEmail() {
+        service.obterPorId(usuario.getId());
+        service.autenticar("cache@test.com.br", "123").join();
+
+        repository.save(usuario.toBuilder().nome("alterado").email("novo@test.com.br").build());
+
+        assertNull(nativo(UsuarioRepository.CACHE_POR_ID).getIfPresent(usuario.getId()));
+        assertEquals("novo@test.com.br", service.obterPorId(usuario.getId()).getEmail());
+        assertEquals("alterado", service.obterPorId(usuario.getId()).getNome());
+        assertEquals(usuario.getId(), service.autenticar("novo@test.com.br", "123").join().getId());
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> service.autenticar("cache@test.com.br", "123").join());
+        assertTrue(erro.getCause() instanceof ErroAutenticacao);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativo(String nome) {
+        return (Cache<Object, Object>) cacheManager.getCache(nome).getNativeCache();
+    }
+}
@@ -3,21 +3,33 @@ package com.maquirino.minhasfinancas.service;
 import com.maquirino.minhasfinancas.exception.ErroAutenticacao;
 import com.maquirino.minhasfinancas.exception.RegraNegocioException;
 import com.maquirino.minhasfinancas.model.entity.Usuario;
+import com.maquirino.minhasfinancas.model.projection.DadosUsuario;
 import com.maquirino.minhasfinancas.model.repository.UsuarioRepository;
+import com.maquirino.minhasfinancas.service.impl.SenhaServiceImpl;
 import com.maquirino.minhasfinancas.service.impl.UsuarioServiceImpl;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,24 +45,67 @@ class UsuarioServiceTest {
     @Mock
     private UsuarioRepository repository;
 
+    @Spy
+    private SenhaServiceImpl senhaService = senhaService();
+
+    @Mock
+    private SincronizacaoService sincronizacaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void deveAutenticarUsuarioComSucesso() {
+        String hash = senhaService.codificar("123");
+        when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("test@test.com.br").senha(hash).build()));
 
-        when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("test@test.com.br").senha("123").build()));
+        Usuario usuario = service.autenticar("test@test.com.br", "123").join();
 
-        assertDoesNotThrow(() -> {
-            service.autenticar("test@test.com.br", "123");
-        });
+        assertEquals(hash, usuario.getSenha());
+        verify(repository, never()).save(any(Usuario.class));
+    }
+
+    @Test
+    void deveAtualizarSenhaLegadaAoAutenticar() {
+        when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().id(1L).email("test@test.com.br").senha("123").build()));
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Usuario usuario = service.autenticar("test@test.com.br", "123").join();
+
+        assertEquals(1L, usuario.getId());
+        assertNotEquals("123", usuario.getSenha());
+        assertTrue(senhaService.confere("123", usuario.getSenha()));
+        assertFalse(senhaService.precisaAtualizar(usuario.getSenha()));
+        verify(repository).save(usuario);
+    }
+
+    @Test
+    void deveAtualizarSenhaComCustoMenorAoAutenticar() {
+        String hash = new BCryptPasswordEncoder(5).encode("123");
+        when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("test@test.com.br").senha(hash).build()));
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Usuario usuario = service.autenticar("test@test.com.br", "123").join();
+
+        assertTrue(usuario.getSenha().startsWith("$2a$06$"));
     }
 
     @Test
     void deveNaoAutenticarUsuarioComSucessoAoErrarSenha() {
+        String hash = senhaService.codificar("1234");
+        when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("test@test.com.br").senha(hash).build()));
+
+        assertErroAutenticacao(() -> service.autenticar("test@test.com.br", "123").join());
+        verify(repository, never()).save(any(Usuario.class));
+    }
+
+    @Test
+    void deveNaoAutenticarUsuarioComSucessoAoErrarSenhaLegada() {
 
         when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("test@test.com.br").senha("1234").build()));
 
-        assertThrows(ErroAutenticacao.class, () -> {
-            service.autenticar("test@test.com.br", "123");
-        });
+        assertErroAutenticacao(() -> service.autenticar("test@test.com.br", "123").join());
+        verify(repository, never()).save(any(Usuario.class));
     }
 
     @Test
@@ -58,9 +113,7 @@ class UsuarioServiceTest {
 
         when(repository.findByEmail(anyString())).thenReturn(Optional.empty());
 
-        assertThrows(ErroAutenticacao.class, () -> {
-            service.autenticar("test@test.com.br", "123");
-        });
+        assertErroAutenticacao(() -> service.autenticar("test@test.com.br", "123").join());
     }
 
     @Test
@@ -68,9 +121,7 @@ class UsuarioServiceTest {
 
         when(repository.findByEmail(anyString())).thenReturn(Optional.of(Usuario.builder().email("alou@email.com.br").senha("1234").build()));
 
-        assertThrows(ErroAutenticacao.class, () -> {
-            service.autenticar("test@test.com.br", "123");
-        });
+        assertErroAutenticacao(() -> service.autenticar("test@test.com.br", "123").join());
     }
 
     @Test
@@ -102,13 +153,48 @@ class UsuarioServiceTest {
 
         when(repository.save(any(Usuario.class))).thenReturn(usuario);
 
-        Usuario usuarioSalvo = service.salvarUsuario(Usuario.builder().build());
+        Usuario usuarioSalvo = service.salvarUsuario(Usuario.builder().senha("senha").build());
 
         assertNotNull(usuarioSalvo);
         assertEquals(1l, usuarioSalvo.getId());
         assertEquals("nome", usuarioSalvo.getNome());
         assertEquals("email@email.com", usuarioSalvo.getEmail());
         assertEquals("senha", usuarioSalvo.getSenha());
+        verify(sincronizacaoService).iniciar(1l);
+    }
+
+    @Test
+    void deveCodificarSenhaAntesDeAbrirATransacao() {
+        when(repository.existsByEmail(anyString())).thenReturn(false);
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+
+        InOrder ordem = inOrder(senhaService, transactionManager, repository);
+        ordem.verify(senhaService).codificar("senha");
+        ordem.verify(transactionManager).getTransaction(any());
+        ordem.verify(repository).save(any(Usuario.class));
+        ordem.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void deveSalvarUsuarioComSenhaCodificada() {
+        when(repository.existsByEmail(anyString())).thenReturn(false);
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Usuario usuarioSalvo = service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+
+        assertNotEquals("senha", usuarioSalvo.getSenha());
+        assertTrue(senhaService.confere("senha", usuarioSalvo.getSenha()));
+    }
+
+    @Test
+    void deveNaoSalvarUsuarioSemSenha() {
+        when(repository.existsByEmail(anyString())).thenReturn(false);
+
+        assertThrows(RegraNegocioException.class, () -> service.salvarUsuario(Usuario.builder().email("email@email.com").build()));
+
+        verify(repository, never()).save(any(Usuario.class));
     }
 
     @Test
@@ -121,4 +207,33 @@ class UsuarioServiceTest {
 
         verify(repository, never()).save(usuario);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveObterReferenciaDeUsuarioExistente() {
+        Usuario referencia = Usuario.builder().id(1L).build();
+        when(repository.obterDados(1L)).thenReturn(Optional.of(DadosUsuario.de(referencia)));
+        when(repository.getOne(1L)).thenReturn(referencia);
+
+        assertEquals(referencia, service.obterReferencia(1L));
+    }
+
+    @Test
+    void deveNaoObterReferenciaDeUsuarioInexistente() {
+        when(repository.obterDados(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ErroAutenticacao.class, () -> service.obterReferencia(1L));
+
+        verify(repository, never()).getOne(1L);
+    }
+
+    private static void assertErroAutenticacao(Executable executable) {
+        CompletionException erro = assertThrows(CompletionException.class, executable);
+        assertTrue(erro.getCause() instanceof ErroAutenticacao);
+    }
+
+    private static SenhaServiceImpl senhaService() {
+        SenhaServiceImpl senhaService = new SenhaServiceImpl(6, 1, 10);
+        senhaService.iniciar();
+        return senhaService;
+    }
+}